@@ -0,0 +1,155 @@
+package ru.practicum.shareit.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ServerClientConfig;
+import ru.practicum.shareit.client.ServerClientProperties;
+import ru.practicum.shareit.client.ServerResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Проксирование запросов шлюза через {@link BaseClient} к локальной заглушке сервера,
+ * которая отвечает фиксированным JSON. Пул соединений и коннектор собираются так же, как в шлюзе.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class BaseClientBenchmark {
+
+    private static final String API_PREFIX = "/items";
+    private static final long USER_ID = 1L;
+    private static final AtomicLong ITEM_IDS = new AtomicLong();
+    private static final byte[] ITEM_JSON = ("{\"id\":1,\"name\":\"Дрель\",\"description\":\"Простая дрель\"," +
+            "\"available\":true,\"comments\":[],\"lastBooking\":null,\"nextBooking\":null,\"requestId\":null}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    DisposableServer stubServer;
+    ConnectionProvider connectionProvider;
+    StubClient client;
+
+    @Setup
+    public void setUp() {
+        stubServer = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .handle((request, response) -> request.receive().then(response
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(ITEM_JSON.length))
+                        .sendByteArray(Mono.just(ITEM_JSON))
+                        .then()))
+                .bindNow();
+
+        ServerClientConfig config = new ServerClientConfig();
+        ServerClientProperties properties = new ServerClientProperties();
+        connectionProvider = config.serverConnectionProvider(properties);
+        String serverUrl = "http://localhost:" + stubServer.port();
+        WebClient webClient = WebClient.builder()
+                .clientConnector(config.serverHttpConnector(connectionProvider, properties))
+                .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                .build();
+        client = new StubClient(webClient,
+                new GatewayResponseCache(10_000, Duration.ofSeconds(30), new SimpleMeterRegistry()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        connectionProvider.dispose();
+        stubServer.disposeNow();
+    }
+
+    /**
+     * Свой id вещи у каждого потока, чтобы одновременные GET не объединялись в один запрос к серверу.
+     */
+    @State(Scope.Thread)
+    public static class ThreadItem {
+        long itemId;
+
+        @Setup
+        public void setUp() {
+            itemId = ITEM_IDS.incrementAndGet();
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> forwardGet(ThreadItem threadItem) {
+        return drain(client.getItem(threadItem.itemId).block());
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> forwardCachedGet() {
+        return client.getItemCached().block();
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> forwardPost() {
+        return drain(client.createItem().block());
+    }
+
+    /**
+     * Некэшируемый ответ передается потоком, и соединение возвращается в пул, только когда тело прочитано.
+     */
+    private static ResponseEntity<Object> drain(ResponseEntity<Object> response) {
+        ((ServerResponseBody) response.getBody()).getBody()
+                .doOnNext(DataBufferUtils::release)
+                .then()
+                .block();
+        return response;
+    }
+
+    static class StubClient extends BaseClient {
+
+        private static final Map<String, Object> ITEM = Map.of(
+                "name", "Дрель",
+                "description", "Простая дрель",
+                "available", true
+        );
+
+        StubClient(WebClient webClient, GatewayResponseCache responseCache) {
+            super(webClient, responseCache, API_PREFIX);
+        }
+
+        Mono<ResponseEntity<Object>> getItem(long itemId) {
+            return get("/" + itemId, USER_ID);
+        }
+
+        Mono<ResponseEntity<Object>> getItemCached() {
+            return getCached("/1", USER_ID, 1L);
+        }
+
+        Mono<ResponseEntity<Object>> createItem() {
+            return post("", USER_ID, ITEM);
+        }
+    }
+}
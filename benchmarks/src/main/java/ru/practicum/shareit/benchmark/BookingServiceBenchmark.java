@@ -0,0 +1,155 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.BookStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Список бронирований владельца вещей на встроенной H2 с заранее заполненными данными.
+ * Схема создается миграциями Flyway сервера, данные вставляются пачками через JDBC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+
+    private static final long OWNER_ID = 1L;
+    private static final int USERS = 100;
+    private static final int ITEMS_PER_OWNER = 50;
+    private static final int BOOKINGS_PER_ITEM = 100;
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    String state;
+
+    @Param({"0", "200"})
+    int from;
+
+    @Param({"20"})
+    int size;
+
+    ConfigurableApplicationContext context;
+    BookingService bookingService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        seed(context.getBean(JdbcTemplate.class));
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> getBookingsByOwner() {
+        return bookingService.getBookingsByOwner(OWNER_ID, state, from, size);
+    }
+
+    /**
+     * Конфигурация сервера вместо {@link ShareItServer}: шлюз лежит в том же пакете ru.practicum.shareit,
+     * поэтому сканирование ограничено классами из jar сервера.
+     */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @AutoConfigurationPackage(basePackageClasses = ShareItServer.class)
+    @ComponentScan(basePackageClasses = ShareItServer.class, excludeFilters = {
+            @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ShareItServer.class),
+            @ComponentScan.Filter(type = FilterType.CUSTOM, classes = NotFromServer.class)})
+    static class ServerApplication {
+    }
+
+    static class NotFromServer implements TypeFilter {
+
+        private static final String SERVER_LOCATION = ShareItServer.class.getProtectionDomain()
+                .getCodeSource().getLocation().getPath();
+
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory)
+                throws IOException {
+            return !metadataReader.getResource().getURL().getPath().contains(SERVER_LOCATION);
+        }
+    }
+
+    static void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{"user" + i, "user" + i + "@yandex.ru"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (name, email) values (?, ?)", users);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 1; i <= ITEMS_PER_OWNER; i++) {
+            items.add(new Object[]{i, OWNER_ID, "item" + i, "description" + i, true});
+        }
+        // последовательность вещей выдает id блоками по 1000, бронированиям нужны id вещей подряд
+        jdbcTemplate.batchUpdate("insert into items (id, owner, name, description, available) " +
+                "values (?, ?, ?, ?, ?)", items);
+        jdbcTemplate.execute("alter sequence items_seq restart with " + (ITEMS_PER_OWNER + 1));
+
+        LocalDateTime now = LocalDateTime.now();
+        BookStatus[] statuses = BookStatus.values();
+        List<Object[]> bookings = new ArrayList<>();
+        for (int item = 1; item <= ITEMS_PER_OWNER; item++) {
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                long booker = 2 + (item * BOOKINGS_PER_ITEM + i) % (USERS - 1);
+                LocalDateTime start = now.plusDays(i - BOOKINGS_PER_ITEM / 2).plusHours(item);
+                bookings.add(new Object[]{item, booker, Timestamp.valueOf(start),
+                        Timestamp.valueOf(start.plusDays(2)), statuses[i % statuses.length].name()});
+                if (bookings.size() == BATCH_SIZE) {
+                    insertBookings(jdbcTemplate, bookings);
+                    bookings.clear();
+                }
+            }
+        }
+        insertBookings(jdbcTemplate, bookings);
+    }
+
+    private static void insertBookings(JdbcTemplate jdbcTemplate, List<Object[]> bookings) {
+        jdbcTemplate.batchUpdate("insert into booking (item_id, booker_id, start_booking, end_booking, status) " +
+                "values (?, ?, ?, ?, ?)", bookings);
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemResponseForOwner;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Чтения, которые работают с сущностями: бронирование по id, вещь по id с отзывами и бронированиями,
+ * запросы других пользователей. Перед каждым вызовом кэш второго уровня очищается, поэтому замер включает
+ * все строки, которые читаются из базы. Число SQL-запросов и загруженных сущностей для тех же чтений
+ * проверяет {@code FetchPlanTest} сервера.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FetchPlanBenchmark {
+
+    private static final long OWNER_ID = 1L;
+    private static final long ITEM_ID = 1L;
+    private static final long BOOKING_ID = 1L;
+    private static final int REQUESTS = 20;
+    private static final int COMMENTS = 10;
+
+    ConfigurableApplicationContext context;
+    BookingService bookingService;
+    ItemService itemService;
+    ItemRequestService itemRequestService;
+    SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BookingServiceBenchmark.ServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:fetch-plan;DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BookingServiceBenchmark.seed(jdbcTemplate);
+        seedRequestsAndComments(jdbcTemplate);
+        bookingService = context.getBean(BookingService.class);
+        itemService = context.getBean(ItemService.class);
+        itemRequestService = context.getBean(ItemRequestService.class);
+        sessionFactory = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookingResponseDto getBookingById() {
+        sessionFactory.getCache().evictAllRegions();
+        return bookingService.getBookingById(OWNER_ID, BOOKING_ID);
+    }
+
+    @Benchmark
+    public ItemResponseForOwner getItemById() {
+        sessionFactory.getCache().evictAllRegions();
+        return itemService.getById(ITEM_ID, OWNER_ID);
+    }
+
+    @Benchmark
+    public List<ItemRequestResponseDto> getAllRequests() {
+        sessionFactory.getCache().evictAllRegions();
+        return itemRequestService.getAll(OWNER_ID, 0, REQUESTS);
+    }
+
+    private static void seedRequestsAndComments(JdbcTemplate jdbcTemplate) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> requests = new ArrayList<>();
+        for (int i = 1; i <= REQUESTS; i++) {
+            requests.add(new Object[]{"request" + i, Timestamp.valueOf(now.minusDays(i)), OWNER_ID + i});
+        }
+        jdbcTemplate.batchUpdate("insert into requests (description, created, creator) values (?, ?, ?)", requests);
+        jdbcTemplate.update("update items set request_id = id where id <= ?", REQUESTS);
+
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 1; i <= COMMENTS; i++) {
+            comments.add(new Object[]{"comment" + i, ITEM_ID, OWNER_ID + i, Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("insert into comments (text, item_id, author_id, created) values (?, ?, ?, ?)",
+                comments);
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingInfoInItem;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
+import ru.practicum.shareit.booking.model.BookStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemResponseForOwner;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.CommentMapperImpl;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.mapper.ItemMapperImpl;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.mapper.UserMapperImpl;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразования сущностей в DTO, которые выполняются для каждой строки списочных ответов сервера.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    ItemMapper itemMapper;
+    BookingMapper bookingMapper;
+    CommentMapper commentMapper;
+    Booking booking;
+    BookingView bookingView;
+    Item item;
+    Comment comment;
+
+    @Setup
+    public void setUp() {
+        itemMapper = new ItemMapperImpl();
+        bookingMapper = new BookingMapperImpl(new UserMapperImpl(), itemMapper);
+        commentMapper = new CommentMapperImpl();
+
+        User owner = user(1L, "Owner");
+        User booker = user(2L, "Booker");
+        item = new Item();
+        item.setId(1L);
+        item.setOwner(owner.getId());
+        item.setName("Дрель");
+        item.setDescription("Простая дрель");
+        item.setAvailable(true);
+        item.setComments(new ArrayList<>());
+
+        LocalDateTime start = LocalDateTime.of(2023, 3, 1, 12, 0);
+        booking = new Booking();
+        booking.setId(1L);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(1));
+        booking.setStatus(BookStatus.APPROVED);
+        bookingView = new BookingView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booker.getId(), booker.getName(), booker.getEmail(),
+                item.getId(), item.getName(), item.getDescription(), item.getAvailable());
+
+        comment = new Comment();
+        comment.setId(1L);
+        comment.setText("Отличная дрель");
+        comment.setItem(item);
+        comment.setAuthor(booker);
+        comment.setCreated(start.plusDays(2));
+    }
+
+    private static User user(long id, String name) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(name.toLowerCase() + "@yandex.ru");
+        return user;
+    }
+
+    @Benchmark
+    public BookingResponseDto bookingToBookingResponseDto() {
+        return bookingMapper.bookingToBookingResponseDto(booking);
+    }
+
+    @Benchmark
+    public BookingResponseDto bookingViewToBookingResponseDto() {
+        return bookingMapper.bookingViewToBookingResponseDto(bookingView);
+    }
+
+    @Benchmark
+    public BookingInfoInItem bookingToBookingInfoInItem() {
+        return bookingMapper.bookingToBookingInfoInItem(booking);
+    }
+
+    @Benchmark
+    public ItemResponseDto itemToItemResponseDto() {
+        return itemMapper.itemToItemResponseDto(item);
+    }
+
+    @Benchmark
+    public ItemResponseForOwner itemToItemResponseForOwner() {
+        return itemMapper.itemToItemResponseForOwner(item);
+    }
+
+    @Benchmark
+    public CommentResponseDto commentToCommentResponse() {
+        return commentMapper.commentToCommentResponse(comment);
+    }
+}
@@ -2,48 +2,89 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
 import ru.practicum.shareit.booking.dto.State;
 import ru.practicum.shareit.booking.exceptions.IncorrectDateTimeException;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
     private static final String OWNER_PATH = "/owner";
+    private static final String BULK_PATH = "/bulk";
+    private static final String ITEMS_REGION = "/items";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         GatewayResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                responseCache,
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> getBookings(long userId, State state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getBookings(long userId, State state, Integer from, Integer size,
+                                                    @Nullable String cursor) {
+        return get(getListPath("", cursor), userId, getListParameters(state, from, size, cursor));
+    }
+
+    private String getListPath(String path, @Nullable String cursor) {
+        String query = path + "?state={state}&from={from}&size={size}";
+        if (cursor != null) {
+            query += "&cursor={cursor}";
+        }
+        return query;
+    }
+
+    private Map<String, Object> getListParameters(State state, Integer from, Integer size, @Nullable String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
 
 
-    public ResponseEntity<Object> createBooking(long userId, BookingCreationDto requestDto) {
+    public Mono<ResponseEntity<Object>> createBooking(long userId, BookingCreationDto requestDto) {
         checkDates(requestDto);
-        return post("", userId, requestDto);
+        return invalidating(post("", userId, requestDto), bookedItemTags(List.of(requestDto)));
+    }
+
+    public Mono<ResponseEntity<Object>> createBookings(long userId, List<BookingCreationDto> requestDtos) {
+        requestDtos.forEach(this::checkDates);
+        return invalidating(post(BULK_PATH, userId, requestDtos), bookedItemTags(requestDtos));
+    }
+
+    /**
+     * Новое бронирование меняет последнее или следующее бронирование в карточке вещи у ее владельца.
+     */
+    private List<GatewayResponseCache.Tag> bookedItemTags(List<BookingCreationDto> requestDtos) {
+        return requestDtos.stream()
+                .map(BookingCreationDto::getItemId)
+                .distinct()
+                .map(itemId -> GatewayResponseCache.Tag.resource(ITEMS_REGION, itemId))
+                .collect(Collectors.toList());
     }
 
     private void checkDates(BookingCreationDto bookingForSave) {
@@ -65,22 +106,24 @@ public class BookingClient extends BaseClient {
         }
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> approveBooking(Long userId, Long bookingId, Boolean isApproved) {
+    public Mono<ResponseEntity<Object>> getBookingsByIds(long userId, Collection<Long> ids) {
+        return get("?ids={ids}", userId, Map.of("ids", joinIds(ids)));
+    }
+
+    public Mono<ResponseEntity<Object>> approveBooking(Long userId, Long bookingId, Boolean isApproved) {
         Map<String, Object> parameters = Map.of(
                 "approved", isApproved);
-        return patch(String.format("/%s?approved={approved}", bookingId), userId, parameters, null);
+        // подтверждает владелец вещи, а бронирования вещи видны только в его карточках
+        return invalidating(patch(String.format("/%s?approved={approved}", bookingId), userId, parameters, null),
+                List.of(GatewayResponseCache.Tag.user(ITEMS_REGION, userId)));
     }
 
-    public ResponseEntity<Object> getOwnersBookings(long userId, State state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get(OWNER_PATH + "?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getOwnersBookings(long userId, State state, Integer from, Integer size,
+                                                          @Nullable String cursor) {
+        return get(getListPath(OWNER_PATH, cursor), userId, getListParameters(state, from, size, cursor));
     }
 }
@@ -7,12 +7,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
 import ru.practicum.shareit.booking.dto.State;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 /**
  * TODO Sprint add-bookings.
@@ -28,48 +33,70 @@ public class BookingController {
     private static final String USER_HEADER = "X-Sharer-User-Id";
     private static final  String ID_PATH = "/{bookingId}";
     private static final  String OWNER_PATH = "/owner";
+    private static final  String BULK_PATH = "/bulk";
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int MAX_BULK_SIZE = 50_000;
 
     BookingClient bookingClient;
 
     @PostMapping
-    ResponseEntity<Object> createBooking(@RequestHeader(USER_HEADER) Long userId,
-                                         @RequestBody @Valid BookingCreationDto dto) {
+    Mono<ResponseEntity<Object>> createBooking(@RequestHeader(USER_HEADER) Long userId,
+                                               @RequestBody @Valid BookingCreationDto dto) {
         log.info("Create booking with userId={}, dto={}", userId, dto.toString());
         return bookingClient.createBooking(userId, dto);
     }
 
+    @PostMapping(BULK_PATH)
+    Mono<ResponseEntity<Object>> createBookings(@RequestHeader(USER_HEADER) Long userId,
+                                                @RequestBody @NotEmpty @Size(max = MAX_BULK_SIZE)
+                                                    List<@Valid @NotNull BookingCreationDto> dtos) {
+        log.info("Create {} bookings with userId={}", dtos.size(), userId);
+        return bookingClient.createBookings(userId, dtos);
+    }
+
     @PatchMapping(ID_PATH)
-    ResponseEntity<Object> approveBooking(@RequestHeader(USER_HEADER) Long userId, @PathVariable Long bookingId,
-                                      @RequestParam(name = "approved") Boolean isApproved) {
+    Mono<ResponseEntity<Object>> approveBooking(@RequestHeader(USER_HEADER) Long userId, @PathVariable Long bookingId,
+                                            @RequestParam(name = "approved") Boolean isApproved) {
         log.info("Approve booking with userId={}, bookingId={}, isApproved={}", userId, bookingId, isApproved);
         return bookingClient.approveBooking(userId, bookingId, isApproved);
     }
 
     @GetMapping(ID_PATH)
-    ResponseEntity<Object> getBooking(@RequestHeader(USER_HEADER) Long userId, @PathVariable Long bookingId) {
+    Mono<ResponseEntity<Object>> getBooking(@RequestHeader(USER_HEADER) Long userId, @PathVariable Long bookingId) {
         log.info("Get booking with userId={}, bookingId={}", userId, bookingId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
+    @GetMapping(params = "ids")
+    Mono<ResponseEntity<Object>> getBookingsByIds(@RequestHeader(USER_HEADER) Long userId,
+                                                  @NotEmpty @Size(max = MAX_BATCH_SIZE) @RequestParam List<Long> ids) {
+        log.info("Get bookings with userId={}, ids={}", userId, ids);
+        return bookingClient.getBookingsByIds(userId, ids);
+    }
+
     @GetMapping
-    ResponseEntity<Object> getUserBookings(@RequestHeader(USER_HEADER) Long userId,
-                                             @RequestParam (defaultValue = "ALL") String state,
-                                             @PositiveOrZero @RequestParam(required = false, defaultValue = "0") int from,
-                                             @Positive @RequestParam(required = false, defaultValue = "10") int size) {
+    Mono<ResponseEntity<Object>> getUserBookings(@RequestHeader(USER_HEADER) Long userId,
+                                                   @RequestParam (defaultValue = "ALL") String state,
+                                                   @PositiveOrZero @RequestParam(required = false, defaultValue = "0") int from,
+                                                   @Positive @RequestParam(required = false, defaultValue = "10") int size,
+                                                   @RequestParam(required = false) String cursor) {
         State userState = State.from(state)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + state));
-        log.info("Get bookings with state {}, userId={}, from={}, size={}", state, userId, from, size);
-        return bookingClient.getBookings(userId, userState, from, size);
+        log.info("Get bookings with state {}, userId={}, from={}, size={}, cursor={}", state, userId, from, size,
+                cursor);
+        return bookingClient.getBookings(userId, userState, from, size, cursor);
     }
 
     @GetMapping(OWNER_PATH)
-    ResponseEntity<Object> getOwnerBookings(@RequestHeader(USER_HEADER) Long userId,
-                                              @RequestParam (defaultValue = "ALL") String state,
-                                              @PositiveOrZero @RequestParam(required = false, defaultValue = "0") int from,
-                                              @Positive @RequestParam(required = false, defaultValue = "10") int size) {
+    Mono<ResponseEntity<Object>> getOwnerBookings(@RequestHeader(USER_HEADER) Long userId,
+                                                    @RequestParam (defaultValue = "ALL") String state,
+                                                    @PositiveOrZero @RequestParam(required = false, defaultValue = "0") int from,
+                                                    @Positive @RequestParam(required = false, defaultValue = "10") int size,
+                                                    @RequestParam(required = false) String cursor) {
         State userState = State.from(state)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + state));
-        log.info("Get owners bookings with state {}, userId={}, from={}, size={}", state, userId, from, size);
-        return bookingClient.getOwnersBookings(userId, userState, from, size);
+        log.info("Get owners bookings with state {}, userId={}, from={}, size={}, cursor={}", state, userId, from,
+                size, cursor);
+        return bookingClient.getOwnersBookings(userId, userState, from, size, cursor);
     }
 }
@@ -1,102 +1,208 @@
 package ru.practicum.shareit.client;
 
-import org.springframework.http.HttpEntity;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "te", "trailer", "upgrade", "proxy-authenticate", "proxy-authorization", "content-length", "date");
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    protected final WebClient webClient;
+    private final GatewayResponseCache responseCache;
+    private final String region;
+
+    public BaseClient(WebClient webClient, GatewayResponseCache responseCache, String region) {
+        this.webClient = webClient;
+        this.responseCache = responseCache;
+        this.region = region;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, null, parameters, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected Mono<ResponseEntity<Object>> getCached(String path, @Nullable Long userId, long resourceId) {
+        return getCached(path, userId, null, List.of(resource(resourceId)));
+    }
+
+    /**
+     * Поиск или выборка по списку id: кроме самих ресурсов запись сбрасывается с коллекцией области,
+     * потому что новая сущность может попасть в ответ.
+     */
+    protected Mono<ResponseEntity<Object>> getCachedCollection(String path, @Nullable Long userId,
+                                                               Map<String, Object> parameters,
+                                                               Collection<Long> resourceIds) {
+        List<GatewayResponseCache.Tag> tags = resourceIds.stream()
+                .map(this::resource)
+                .collect(Collectors.toCollection(ArrayList::new));
+        tags.add(collection());
+        return getCached(path, userId, parameters, tags);
+    }
+
+    private Mono<ResponseEntity<Object>> getCached(String path, @Nullable Long userId,
+                                                   @Nullable Map<String, Object> parameters,
+                                                   Collection<GatewayResponseCache.Tag> tags) {
+        GatewayResponseCache.Key key = responseCache.key(region, path, userId, parameters, tags);
+        ResponseEntity<Object> cached = responseCache.get(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        long generation = responseCache.generation();
+        return responseCache.singleFlight(key, () -> exchangeBuffered(path, userId, parameters))
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        responseCache.put(key, response, generation);
+                    }
+                });
+    }
+
+    /**
+     * После успешного изменяющего запроса сбрасывает записи кэша с указанными метками.
+     */
+    protected Mono<ResponseEntity<Object>> invalidating(Mono<ResponseEntity<Object>> request,
+                                                        Collection<GatewayResponseCache.Tag> tags) {
+        return request.doOnNext(response -> {
+            if (response.getStatusCode().is2xxSuccessful()) {
+                responseCache.invalidate(tags);
+            }
+        });
+    }
+
+    protected GatewayResponseCache.Tag resource(long id) {
+        return GatewayResponseCache.Tag.resource(region, id);
+    }
+
+    protected GatewayResponseCache.Tag user(long userId) {
+        return GatewayResponseCache.Tag.user(region, userId);
+    }
+
+    protected GatewayResponseCache.Tag collection() {
+        return GatewayResponseCache.Tag.collection(region);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId,
+                                                    @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId,
+                                                   @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId,
+                                                     @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
-        }
-        return prepareGatewayResponse(shareitServerResponse);
+    /**
+     * Список id для batch-запроса к серверу. Повторы убираются, а порядок фиксируется,
+     * чтобы одинаковые наборы id попадали в один ключ кэша.
+     */
+    protected static String joinIds(Collection<Long> ids) {
+        return ids.stream()
+                .distinct()
+                .sorted()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * Ответ сервера передается клиенту потоком: тело не собирается в памяти шлюза, поэтому его размер
+     * не ограничен. Такие ответы не кэшируются и не объединяются, это делает только {@link #getCached}.
+     */
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body) {
+        return request(method, path, userId, parameters, body)
+                .retrieve()
+                // ответы с ошибкой передаются клиенту как есть, а не превращаются в исключение
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> prepareGatewayResponse(response, new ServerResponseBody(response.getBody(),
+                        response.getHeaders().getContentType())));
+    }
+
+    /**
+     * Ответ для кэша и ожидающих одинаковых запросов читается целиком. Так запрашиваются только
+     * ограниченные по размеру ответы: сущность по id и выборки по списку id или странице.
+     */
+    private Mono<ResponseEntity<Object>> exchangeBuffered(String path, Long userId,
+                                                          @Nullable Map<String, Object> parameters) {
+        return request(HttpMethod.GET, path, userId, parameters, null)
+                .exchangeToMono(response -> response.toEntity(byte[].class))
+                .map(response -> prepareGatewayResponse(response, response.getBody()));
+    }
+
+    private <T> WebClient.RequestHeadersSpec<?> request(HttpMethod method, String path, Long userId,
+                                                        @Nullable Map<String, Object> parameters,
+                                                        @Nullable T body) {
+        WebClient.RequestBodySpec requestSpec = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+        return body != null ? requestSpec.bodyValue(body) : requestSpec;
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -109,18 +215,15 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
-
-        return responseBuilder.build();
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<?> response, @Nullable Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        response.getHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(headers)
+                .body(body);
     }
 }
-
@@ -0,0 +1,200 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Кэш ответов сервера на GET-запросы. Каждая запись помечена метками: ресурсами (id сущностей в ответе),
+ * пользователем, от имени которого сделан запрос, и, для поиска и выборок по списку id, коллекцией
+ * области, в которую попадают новые сущности. Кроме того, каждая запись помечена своей областью целиком.
+ * Изменяющий запрос через клиента сбрасывает только записи со своими метками, находя их
+ * по вторичному индексу. Метки хранят номер последнего сброса, поэтому ответ, полученный до сброса,
+ * не сохраняется.
+ * <p>
+ * Одновременные одинаковые кэшируемые GET-запросы объединяются в один запрос к серверу, результат
+ * которого получают все ожидающие. Остальные ответы передаются потоком и не объединяются.
+ */
+@Component
+public class GatewayResponseCache {
+
+    private final Cache<Key, ResponseEntity<Object>> responses;
+    private final Map<Tag, Set<Key>> keysByTag = new ConcurrentHashMap<>();
+    private final Cache<Tag, Long> invalidatedAt;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Key, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+
+    public GatewayResponseCache(@Value("${shareit-server.cache.maximum-size}") long maximumSize,
+                                @Value("${shareit-server.cache.expire-after-write}") Duration expireAfterWrite,
+                                MeterRegistry meterRegistry) {
+        responses = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .executor(Runnable::run)
+                .removalListener((Key key, ResponseEntity<Object> response, RemovalCause cause) -> {
+                    if (cause != RemovalCause.REPLACED) {
+                        unindex(key);
+                    }
+                })
+                .recordStats()
+                .build(), "gateway-responses");
+        // заполнение дольше срока жизни записи не ждут, поэтому и номера сбросов хранить дольше не нужно
+        invalidatedAt = Caffeine.newBuilder()
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * Ключ запроса с метками ответа; к ним добавляются метка области и метка пользователя, если запрос
+     * сделан от его имени.
+     */
+    public Key key(String region, String path, @Nullable Long userId, @Nullable Map<String, Object> parameters,
+                   Collection<Tag> tags) {
+        String parametersKey = parameters == null ? "" : new TreeMap<>(parameters).toString();
+        Set<Tag> keyTags = new HashSet<>(tags);
+        keyTags.add(Tag.region(region));
+        if (userId != null) {
+            keyTags.add(Tag.user(region, userId));
+        }
+        return new Key(region, path + parametersKey, userId, Set.copyOf(keyTags));
+    }
+
+    @Nullable
+    public ResponseEntity<Object> get(Key key) {
+        return responses.getIfPresent(key);
+    }
+
+    /**
+     * Номер, с которым сравниваются сбросы меток при сохранении ответа. Берется до запроса к серверу.
+     */
+    public long generation() {
+        return sequence.get();
+    }
+
+    public void put(Key key, ResponseEntity<Object> response, long generation) {
+        for (Tag tag : key.getTags()) {
+            keysByTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        responses.put(key, response);
+        for (Tag tag : key.getTags()) {
+            Long invalidated = invalidatedAt.getIfPresent(tag);
+            if (invalidated != null && invalidated > generation) {
+                responses.invalidate(key);
+                return;
+            }
+        }
+    }
+
+    public Mono<ResponseEntity<Object>> singleFlight(Key key, Supplier<Mono<ResponseEntity<Object>>> request) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> {
+            AtomicReference<Mono<ResponseEntity<Object>>> shared = new AtomicReference<>();
+            // share() запоминает ответ, поэтому запись убирается до его выдачи ожидающим,
+            // а не по завершении обмена, иначе поздние запросы получат уже отданный ответ
+            shared.set(request.get()
+                    .doOnNext(response -> inFlight.remove(k, shared.get()))
+                    .doFinally(signal -> inFlight.remove(k, shared.get()))
+                    .share());
+            return shared.get();
+        }));
+    }
+
+    public void invalidate(Collection<Tag> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        long invalidated = sequence.incrementAndGet();
+        for (Tag tag : tags) {
+            invalidatedAt.put(tag, invalidated);
+        }
+        for (Tag tag : tags) {
+            Set<Key> keys = keysByTag.get(tag);
+            if (keys != null) {
+                responses.invalidateAll(Set.copyOf(keys));
+            }
+        }
+        inFlight.keySet().removeIf(key -> key.getTags().stream().anyMatch(tags::contains));
+    }
+
+    private void unindex(Key key) {
+        for (Tag tag : key.getTags()) {
+            keysByTag.computeIfPresent(tag, (t, keys) -> {
+                // ключ мог быть снова сохранен после удаления, тогда он остается в индексе
+                if (responses.getIfPresent(key) == null) {
+                    keys.remove(key);
+                }
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public static class Key {
+        String region;
+        String request;
+        Long userId;
+        @EqualsAndHashCode.Exclude
+        Set<Tag> tags;
+    }
+
+    /**
+     * Метка записей кэша внутри области: ресурс с id, пользователь с id, коллекция области (поиск и выборки,
+     * в которые попадают новые сущности) или вся область.
+     */
+    @Getter
+    @EqualsAndHashCode
+    @ToString
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public static class Tag {
+        String region;
+        Scope scope;
+        Long id;
+
+        public static Tag resource(String region, long id) {
+            return new Tag(region, Scope.RESOURCE, id);
+        }
+
+        public static Tag user(String region, long userId) {
+            return new Tag(region, Scope.USER, userId);
+        }
+
+        public static Tag collection(String region) {
+            return new Tag(region, Scope.COLLECTION, null);
+        }
+
+        public static Tag region(String region) {
+            return new Tag(region, Scope.REGION, null);
+        }
+
+        private enum Scope {
+            RESOURCE, USER, COLLECTION, REGION
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.client;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки пула соединений шлюза с сервером. Пул один на все клиенты и на адрес сервера,
+ * поэтому maxConnections ограничивает число соединений на маршрут.
+ */
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties(prefix = "shareit-server.client")
+public class ServerClientProperties {
+    int maxConnections = 200;
+    int pendingAcquireMaxCount = 1000;
+    Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+    boolean keepAlive = true;
+    Duration maxIdleTime = Duration.ofSeconds(30);
+    Duration maxLifeTime = Duration.ofMinutes(5);
+    Duration evictionInterval = Duration.ofSeconds(15);
+    Duration connectTimeout = Duration.ofSeconds(2);
+    Duration readTimeout = Duration.ofSeconds(10);
+}
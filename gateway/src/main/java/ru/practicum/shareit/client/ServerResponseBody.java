@@ -0,0 +1,68 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Тело ответа сервера, которое шлюз отдает клиенту по мере получения, не собирая его в памяти.
+ * <p>
+ * Spring MVC отдает его как {@link ResponseBodyEmitter}: поток сервлета освобождается сразу, а буферы
+ * пишутся в ответ по мере прихода от сервера. Запись в сервлетный поток блокирующая, поэтому выполняется
+ * вне потоков netty; prefetch ограничивает число буферов в очереди. Если клиент отключился, чтение
+ * ответа сервера отменяется.
+ */
+public class ServerResponseBody extends ResponseBodyEmitter {
+
+    private static final int PREFETCH = 16;
+    // паузы в ответе сервера ограничивает таймаут чтения клиента, а не время асинхронного запроса
+    private static final long NO_TIMEOUT = -1;
+
+    @Getter
+    private final Flux<DataBuffer> body;
+    @Nullable
+    private final MediaType contentType;
+    private final Disposable.Swap subscription = Disposables.swap();
+
+    public ServerResponseBody(Flux<DataBuffer> body, @Nullable MediaType contentType) {
+        super(NO_TIMEOUT);
+        this.body = body;
+        this.contentType = contentType;
+        onCompletion(subscription::dispose);
+        onError(error -> subscription.dispose());
+    }
+
+    /**
+     * Вызывается Spring MVC перед началом асинхронной обработки, после этого тело начинает читаться.
+     */
+    @Override
+    protected void extendResponse(ServerHttpResponse outputMessage) {
+        super.extendResponse(outputMessage);
+        subscription.update(body.publishOn(Schedulers.boundedElastic(), PREFETCH)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .subscribe(this::write, this::completeWithError, this::complete));
+    }
+
+    private void write(DataBuffer buffer) {
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        try {
+            send(bytes, contentType);
+        } catch (IOException e) {
+            // исключение отменяет чтение ответа сервера
+            throw new UncheckedIOException(e);
+        }
+    }
+}
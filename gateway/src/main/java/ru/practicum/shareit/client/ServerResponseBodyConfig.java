@@ -0,0 +1,39 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.HttpEntityMethodProcessor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitterReturnValueHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class ServerResponseBodyConfig implements SmartInitializingSingleton {
+
+    private final RequestMappingHandlerAdapter handlerAdapter;
+
+    /**
+     * Ставит {@link ServerResponseBodyReturnValueHandler} перед обработчиками Spring MVC по умолчанию.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(handlerAdapter.getReturnValueHandlers());
+        handlers.add(0, new ServerResponseBodyReturnValueHandler(
+                find(handlers, ResponseBodyEmitterReturnValueHandler.class),
+                find(handlers, HttpEntityMethodProcessor.class)));
+        handlerAdapter.setReturnValueHandlers(handlers);
+    }
+
+    private static HandlerMethodReturnValueHandler find(List<HandlerMethodReturnValueHandler> handlers,
+                                                        Class<? extends HandlerMethodReturnValueHandler> type) {
+        return handlers.stream()
+                .filter(type::isInstance)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Нет обработчика " + type.getSimpleName()));
+    }
+}
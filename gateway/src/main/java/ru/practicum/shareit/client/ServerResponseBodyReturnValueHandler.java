@@ -0,0 +1,37 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Передает ответы с телом {@link ServerResponseBody} обработчику {@code ResponseBodyEmitter}, а остальные
+ * {@link ResponseEntity} - обычному обработчику. Сам Spring MVC выбирает обработчик по объявленному типу тела,
+ * а контроллеры шлюза объявляют его как {@code Object}.
+ */
+@RequiredArgsConstructor
+class ServerResponseBodyReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+    private final HandlerMethodReturnValueHandler emitterHandler;
+    private final HandlerMethodReturnValueHandler entityHandler;
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return ResponseEntity.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(@Nullable Object returnValue, MethodParameter returnType,
+                                  ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        if (returnValue instanceof ResponseEntity
+                && ((ResponseEntity<?>) returnValue).getBody() instanceof ServerResponseBody) {
+            emitterHandler.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+        } else {
+            entityHandler.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+        }
+    }
+}
@@ -1,19 +1,24 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class ItemClient extends BaseClient {
@@ -21,17 +26,21 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
     private static final  String SEARCH_PATH = "/search";
     private static final  String COMMENT_PATH = "/comment";
+    private static final  String BULK_PATH = "/bulk";
+    private static final String REQUESTS_REGION = "/requests";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      GatewayResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                responseCache,
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> getAllByUserId(long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getAllByUserId(long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -39,35 +48,70 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getById(long itemId, long userId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getById(long itemId, long userId) {
+        return getCached("/" + itemId, userId, itemId);
     }
 
-    public ResponseEntity<Object> getByNameOrDescription(String text, long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getByIds(Collection<Long> ids, long userId) {
+        return getCachedCollection("?ids={ids}", userId, Map.of("ids", joinIds(ids)), ids);
+    }
+
+    public Mono<ResponseEntity<Object>> getByNameOrDescription(String text, long userId, int from, int size) {
         if (text.isBlank() || text.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.OK).body(Collections.emptyList());
+            return Mono.just(ResponseEntity.status(HttpStatus.OK).body(Collections.emptyList()));
         }
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get(SEARCH_PATH + "?text={text}&from={from}&size={size}", userId, parameters);
+        return getCachedCollection(SEARCH_PATH + "?text={text}&from={from}&size={size}", userId, parameters,
+                List.of());
+    }
+
+    public Mono<ResponseEntity<Object>> createItem(long userId, ItemCreateDto dto) {
+        return invalidating(post("", userId, dto), createdTags(List.of(dto)));
+    }
+
+    public Mono<ResponseEntity<Object>> createItems(long userId, List<ItemCreateDto> dtos) {
+        return invalidating(post(BULK_PATH, userId, dtos), createdTags(dtos));
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(ItemUpdateDto dto, long userId, long itemId) {
+        return invalidating(patch("/" + itemId, userId, dto), changedTags(itemId));
     }
 
-    public ResponseEntity<Object> createItem(long userId, ItemCreateDto dto) {
-        return post("", userId, dto);
+    public Mono<ResponseEntity<Object>> deleteItem(long itemId, long userId) {
+        return invalidating(delete("/" + itemId, userId), changedTags(itemId));
     }
 
-    public ResponseEntity<Object> updateItem(ItemUpdateDto dto, long userId, long itemId) {
-        return patch("/" + itemId, userId, dto);
+    /**
+     * Отзывы входят в ответы с вещью, в том числе в результаты поиска.
+     */
+    public Mono<ResponseEntity<Object>> createComment(CommentCreateDto dto, long itemId, long userId) {
+        return invalidating(post("/" + itemId + COMMENT_PATH, userId, dto),
+                List.of(resource(itemId), collection()));
     }
 
-    public ResponseEntity<Object> deleteItem(long itemId, long userId) {
-        return delete("/" + itemId, userId);
+    /**
+     * Вещь входит в ответ на запрос, по которому создана, но id запроса шлюз не знает,
+     * поэтому сбрасываются все ответы на запросы.
+     */
+    private List<GatewayResponseCache.Tag> changedTags(long itemId) {
+        return List.of(resource(itemId), collection(), GatewayResponseCache.Tag.region(REQUESTS_REGION));
     }
 
-    public ResponseEntity<Object> createComment(CommentCreateDto dto, long itemId, long userId) {
-        return post("/" + itemId + COMMENT_PATH, userId, dto);
+    /**
+     * Новые вещи попадают в поиск и выборки по id, а вещи по запросу - в ответ на этот запрос.
+     */
+    private List<GatewayResponseCache.Tag> createdTags(List<ItemCreateDto> dtos) {
+        List<GatewayResponseCache.Tag> tags = new ArrayList<>();
+        tags.add(collection());
+        dtos.stream()
+                .map(ItemCreateDto::getRequestId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(requestId -> tags.add(GatewayResponseCache.Tag.resource(REQUESTS_REGION, requestId)));
+        return tags;
     }
 }
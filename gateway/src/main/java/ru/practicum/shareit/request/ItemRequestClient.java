@@ -1,12 +1,14 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestCreatorDto;
 
 import java.util.Map;
@@ -16,25 +18,35 @@ public class ItemRequestClient extends BaseClient {
 
     private static final String API_PREFIX = "/requests";
     private static final String ALL_PATH = "/all";
+    private static final int DEFAULT_SIZE = 10;
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                             GatewayResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                responseCache,
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> create(ItemRequestCreatorDto dto, long userId) {
+    public Mono<ResponseEntity<Object>> create(ItemRequestCreatorDto dto, long userId) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> getByUser(long userId) {
-        return get("", userId);
+    public Mono<ResponseEntity<Object>> getByUser(long userId, @Nullable Integer from, @Nullable Integer size) {
+        if (from == null && size == null) {
+            return get("", userId);
+        }
+        Map<String, Object> parameters = Map.of(
+                "from", from == null ? 0 : from,
+                "size", size == null ? DEFAULT_SIZE : size
+        );
+        return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAll(long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getAll(long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -42,7 +54,7 @@ public class ItemRequestClient extends BaseClient {
         return get(ALL_PATH + "?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getById(long userId, Long requestId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getById(long userId, Long requestId) {
+        return getCached("/" + requestId, userId, requestId);
     }
 }
@@ -6,6 +6,7 @@ import lombok.experimental.FieldDefaults;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestCreatorDto;
 
 import javax.validation.Valid;
@@ -29,26 +30,28 @@ public class ItemRequestController {
     ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItemRequest(@RequestHeader(USER_HEADER) long userId,
-                                                    @RequestBody @Valid ItemRequestCreatorDto dto) {
+    public Mono<ResponseEntity<Object>> createItemRequest(@RequestHeader(USER_HEADER) long userId,
+                                                          @RequestBody @Valid ItemRequestCreatorDto dto) {
         return itemRequestClient.create(dto, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getByUser(@RequestHeader(USER_HEADER) long userId) {
-        return itemRequestClient.getByUser(userId);
+    public Mono<ResponseEntity<Object>> getByUser(@RequestHeader(USER_HEADER) long userId,
+                                                  @PositiveOrZero @RequestParam(required = false) Integer from,
+                                                  @Positive @RequestParam(required = false) Integer size) {
+        return itemRequestClient.getByUser(userId, from, size);
     }
 
     @GetMapping(ALL_PATH)
-    public ResponseEntity<Object> getAll(@RequestHeader(USER_HEADER) long userId,
-                                               @PositiveOrZero @RequestParam(required = false, defaultValue = "0") int from,
-                                               @Positive @RequestParam(required = false, defaultValue = "10") int size) {
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader(USER_HEADER) long userId,
+                                                     @PositiveOrZero @RequestParam(required = false, defaultValue = "0") int from,
+                                                     @Positive @RequestParam(required = false, defaultValue = "10") int size) {
         return itemRequestClient.getAll(userId, from, size);
     }
 
     @GetMapping(ID_PATH)
-    public ResponseEntity<Object> getById(@RequestHeader(USER_HEADER) long userId,
-                                          @PathVariable Long requestId) {
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader(USER_HEADER) long userId,
+                                                @PathVariable Long requestId) {
         return itemRequestClient.getById(userId, requestId);
     }
 }
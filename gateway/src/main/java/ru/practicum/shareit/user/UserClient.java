@@ -1,32 +1,39 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.user.dto.UserCreatorDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
+    private static final String ITEMS_REGION = "/items";
+    private static final String REQUESTS_REGION = "/requests";
 
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      GatewayResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                responseCache,
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> getAll(int from, int size) {
+    public Mono<ResponseEntity<Object>> getAll(int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -34,19 +41,31 @@ public class UserClient extends BaseClient {
         return get("?from={from}&size={size}", parameters);
     }
 
-    public ResponseEntity<Object> createUser(UserCreatorDto dto) {
-        return post("", dto);
+    public Mono<ResponseEntity<Object>> createUser(UserCreatorDto dto) {
+        return invalidating(post("", dto), List.of(collection()));
     }
 
-    public ResponseEntity<Object> updateUser(UserUpdateDto dto, long id) {
-        return patch("/" + id, dto);
+    public Mono<ResponseEntity<Object>> updateUser(UserUpdateDto dto, long id) {
+        // имя автора входит в отзывы, которые шлюз отдает вместе с вещами
+        return invalidating(patch("/" + id, dto),
+                List.of(resource(id), GatewayResponseCache.Tag.region(ITEMS_REGION)));
     }
 
-    public ResponseEntity<Object> getById(long id) {
-        return get("/" + id);
+    public Mono<ResponseEntity<Object>> getById(long id) {
+        return getCached("/" + id, null, id);
     }
 
-    public ResponseEntity<Object> deleteUser(long id) {
-        return delete("/" + id);
+    public Mono<ResponseEntity<Object>> getByIds(Collection<Long> ids) {
+        return getCachedCollection("?ids={ids}", null, Map.of("ids", joinIds(ids)), ids);
+    }
+
+    public Mono<ResponseEntity<Object>> deleteUser(long id) {
+        // вместе с пользователем пропадают его вещи и ответы, полученные от его имени
+        return invalidating(delete("/" + id), List.of(
+                resource(id),
+                GatewayResponseCache.Tag.user(ITEMS_REGION, id),
+                GatewayResponseCache.Tag.collection(ITEMS_REGION),
+                GatewayResponseCache.Tag.user(REQUESTS_REGION, id)
+        ));
     }
 }
@@ -7,13 +7,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserCreatorDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 /**
  * TODO Sprint add-controllers.
@@ -27,32 +31,40 @@ import javax.validation.constraints.PositiveOrZero;
 public class UserController {
 
     private static final String ID_PATH = "/{id}";
+    private static final int MAX_BATCH_SIZE = 100;
 
     UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAll(@PositiveOrZero @RequestParam(required = false, defaultValue = "0") int from,
-                                         @Positive @RequestParam(required = false, defaultValue = "10") int size) {
+    public Mono<ResponseEntity<Object>> getAll(@PositiveOrZero @RequestParam(required = false, defaultValue = "0")
+                                                   int from,
+                                               @Positive @RequestParam(required = false, defaultValue = "10")
+                                                   int size) {
         return userClient.getAll(from, size);
     }
 
+    @GetMapping(params = "ids")
+    public Mono<ResponseEntity<Object>> getByIds(@NotEmpty @Size(max = MAX_BATCH_SIZE) @RequestParam List<Long> ids) {
+        return userClient.getByIds(ids);
+    }
+
     @PostMapping
-    public ResponseEntity<Object> create(@RequestBody @NotNull @Valid UserCreatorDto dto) {
+    public Mono<ResponseEntity<Object>> create(@RequestBody @NotNull @Valid UserCreatorDto dto) {
         return userClient.createUser(dto);
     }
 
     @PatchMapping(ID_PATH)
-    public ResponseEntity<Object> update(@RequestBody @NotNull @Valid UserUpdateDto dto, @PathVariable long id) {
+    public Mono<ResponseEntity<Object>> update(@RequestBody @NotNull @Valid UserUpdateDto dto, @PathVariable long id) {
         return userClient.updateUser(dto, id);
     }
 
     @GetMapping(ID_PATH)
-    public ResponseEntity<Object> getUserById(@PathVariable long id) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable long id) {
         return userClient.getById(id);
     }
 
     @DeleteMapping(ID_PATH)
-    public ResponseEntity<Object> deleteUserById(@PathVariable long id) {
+    public Mono<ResponseEntity<Object>> deleteUserById(@PathVariable long id) {
         return userClient.deleteUser(id);
     }
 }
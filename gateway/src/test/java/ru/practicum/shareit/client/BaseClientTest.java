@@ -0,0 +1,201 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Клиенты шлюза против заглушки сервера: передача ответов клиенту как есть и сброс кэша.
+ */
+public class BaseClientTest {
+
+    private static final String ITEM_BODY = "{\"id\": 1, \"name\": \"Дрель\", \"comments\": []}";
+    private static final String ERROR_BODY = "{\"error\": \"Вещь не найдена\"}";
+    private static final String ERROR_HEADER = "X-Error-Id";
+
+    MockWebServer server;
+    GatewayResponseCache cache;
+    ItemClient itemClient;
+    UserClient userClient;
+    ItemRequestClient itemRequestClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        String serverUrl = server.url("").toString().replaceAll("/$", "");
+        cache = new GatewayResponseCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        itemClient = new ItemClient(serverUrl, WebClient.builder(), cache);
+        userClient = new UserClient(serverUrl, WebClient.builder(), cache);
+        itemRequestClient = new ItemRequestClient(serverUrl, WebClient.builder(), cache);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void streamedErrorResponsePassesThroughTest() {
+        server.enqueue(json(HttpStatus.NOT_FOUND, ERROR_BODY).setHeader(ERROR_HEADER, "42"));
+
+        ResponseEntity<Object> response = itemClient.getAllByUserId(1, 0, 10).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getHeaders().getFirst(ERROR_HEADER)).isEqualTo("42");
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(bodyOf(response)).isEqualTo(ERROR_BODY);
+    }
+
+    @Test
+    void cachedErrorResponsePassesThroughAndIsNotStoredTest() {
+        server.enqueue(json(HttpStatus.INTERNAL_SERVER_ERROR, ERROR_BODY).setHeader(ERROR_HEADER, "42"));
+        server.enqueue(json(HttpStatus.OK, ITEM_BODY));
+
+        ResponseEntity<Object> error = itemClient.getById(1, 1).block();
+
+        assertThat(error.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(error.getHeaders().getFirst(ERROR_HEADER)).isEqualTo("42");
+        assertThat(bodyOf(error)).isEqualTo(ERROR_BODY);
+
+        assertThat(bodyOf(itemClient.getById(1, 1).block())).isEqualTo(ITEM_BODY);
+        assertThat(server.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void hopByHopHeadersAreRemovedTest() {
+        for (int i = 0; i < 2; i++) {
+            server.enqueue(json(HttpStatus.OK, ITEM_BODY)
+                    .setHeader("Keep-Alive", "timeout=5")
+                    .setHeader("Proxy-Authenticate", "Basic")
+                    .setHeader(HttpHeaders.DATE, "Sun, 18 Oct 2026 10:00:00 GMT")
+                    .setHeader(ERROR_HEADER, "42"));
+        }
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setChunkedBody(ITEM_BODY, 8));
+
+        // потоковый, кэшируемый и потоковый с chunked-телом
+        for (ResponseEntity<Object> response : List.of(
+                itemClient.getAllByUserId(1, 0, 10).block(),
+                itemClient.getById(1, 1).block(),
+                itemClient.getAllByUserId(1, 0, 10).block())) {
+            assertThat(bodyOf(response)).isEqualTo(ITEM_BODY);
+            assertThat(response.getHeaders().keySet())
+                    .map(String::toLowerCase)
+                    .doesNotContain("keep-alive", "proxy-authenticate", "date", "content-length",
+                            "transfer-encoding", "connection");
+        }
+    }
+
+    @Test
+    void customHeadersArePreservedTest() {
+        server.enqueue(json(HttpStatus.OK, ITEM_BODY).setHeader(ERROR_HEADER, "42"));
+
+        ResponseEntity<Object> response = itemClient.getById(1, 1).block();
+
+        assertThat(response.getHeaders().getFirst(ERROR_HEADER)).isEqualTo("42");
+    }
+
+    @Test
+    void failedUpdateDoesNotInvalidateTest() {
+        server.enqueue(json(HttpStatus.OK, ITEM_BODY));
+        server.enqueue(json(HttpStatus.BAD_REQUEST, ERROR_BODY));
+        itemClient.getById(1, 1).block();
+
+        ResponseEntity<Object> update = itemClient.updateItem(ItemUpdateDto.builder().name("Дрель").build(), 1, 1)
+                .block();
+
+        assertThat(update.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(bodyOf(update)).isEqualTo(ERROR_BODY);
+        assertThat(bodyOf(itemClient.getById(1, 1).block())).isEqualTo(ITEM_BODY);
+        assertThat(server.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void successfulUpdateInvalidatesTest() {
+        server.enqueue(json(HttpStatus.OK, ITEM_BODY));
+        server.enqueue(json(HttpStatus.OK, ITEM_BODY));
+        server.enqueue(json(HttpStatus.OK, ITEM_BODY));
+        itemClient.getById(1, 1).block();
+
+        bodyOf(itemClient.updateItem(ItemUpdateDto.builder().name("Дрель").build(), 1, 1).block());
+        itemClient.getById(1, 1).block();
+
+        assertThat(server.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    void itemUpdateInvalidatesItemRequestsTest() {
+        server.enqueue(json(HttpStatus.OK, "{\"id\": 1, \"items\": []}"));
+        server.enqueue(json(HttpStatus.OK, ITEM_BODY));
+        server.enqueue(json(HttpStatus.OK, "{\"id\": 1, \"items\": [" + ITEM_BODY + "]}"));
+        itemRequestClient.getById(1, 1L).block();
+
+        bodyOf(itemClient.updateItem(ItemUpdateDto.builder().name("Дрель").build(), 1, 1).block());
+        itemRequestClient.getById(1, 1L).block();
+
+        assertThat(server.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    void userUpdateInvalidatesItemsWithCommentsTest() {
+        server.enqueue(json(HttpStatus.OK, ITEM_BODY));
+        server.enqueue(json(HttpStatus.OK, "{\"id\": 2, \"name\": \"Автор\"}"));
+        server.enqueue(json(HttpStatus.OK, ITEM_BODY));
+        itemClient.getById(1, 1).block();
+        UserUpdateDto dto = new UserUpdateDto();
+        dto.setName("Автор");
+
+        bodyOf(userClient.updateUser(dto, 2).block());
+        itemClient.getById(1, 1).block();
+
+        assertThat(server.getRequestCount()).isEqualTo(3);
+    }
+
+    private static MockResponse json(HttpStatus status, String body) {
+        return new MockResponse()
+                .setResponseCode(status.value())
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(body);
+    }
+
+    /**
+     * Тело кэшируемого ответа уже прочитано, а потоковое читается здесь, после чего соединение освобождается.
+     */
+    private static String bodyOf(ResponseEntity<Object> response) {
+        Object body = response.getBody();
+        if (body instanceof byte[]) {
+            return new String((byte[]) body, StandardCharsets.UTF_8);
+        }
+        return DataBufferUtils.join(((ServerResponseBody) body).getBody())
+                .map(buffer -> {
+                    String value = buffer.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(buffer);
+                    return value;
+                })
+                .defaultIfEmpty("")
+                .block();
+    }
+}
@@ -0,0 +1,198 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GatewayResponseCacheTest {
+
+    private static final String ITEMS = "/items";
+    private static final String REQUESTS = "/requests";
+    private static final int CONCURRENT_MISSES = 16;
+
+    GatewayResponseCache cache;
+    ResponseEntity<Object> response = ResponseEntity.ok("body");
+
+    @BeforeEach
+    void setUp() {
+        cache = new GatewayResponseCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void putAfterInvalidateOfSameTagIsNotStoredTest() {
+        GatewayResponseCache.Key key = itemKey(1);
+        // ответ запрошен до сброса, а сохраняется после него
+        long generation = cache.generation();
+        cache.invalidate(List.of(GatewayResponseCache.Tag.resource(ITEMS, 1)));
+        cache.put(key, response, generation);
+
+        assertThat(cache.get(key)).isNull();
+
+        cache.put(key, response, cache.generation());
+
+        assertThat(cache.get(key)).isSameAs(response);
+    }
+
+    @Test
+    void putAfterInvalidateOfOtherTagIsStoredTest() {
+        GatewayResponseCache.Key key = itemKey(1);
+        long generation = cache.generation();
+        cache.invalidate(List.of(GatewayResponseCache.Tag.resource(ITEMS, 2)));
+        cache.put(key, response, generation);
+
+        assertThat(cache.get(key)).isSameAs(response);
+    }
+
+    @Test
+    void concurrentPutAndInvalidateLeaveNoStaleEntryTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (long id = 0; id < 1_000; id++) {
+                GatewayResponseCache.Tag tag = GatewayResponseCache.Tag.resource(ITEMS, id);
+                GatewayResponseCache.Key key = itemKey(id);
+                long generation = cache.generation();
+                CountDownLatch start = new CountDownLatch(1);
+                CompletableFuture<Void> put = CompletableFuture.runAsync(() -> {
+                    await(start);
+                    cache.put(key, response, generation);
+                }, executor);
+                CompletableFuture<Void> invalidate = CompletableFuture.runAsync(() -> {
+                    await(start);
+                    cache.invalidate(List.of(tag));
+                }, executor);
+                start.countDown();
+                CompletableFuture.allOf(put, invalidate).get(5, TimeUnit.SECONDS);
+
+                // в каком бы порядке ни прошли запись и сброс, ответ, полученный до сброса, не остается в кэше
+                assertThat(cache.get(key)).as("item %s", id).isNull();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void tagInvalidationEvictsOnlyTaggedKeysTest() {
+        GatewayResponseCache.Key first = itemKey(1);
+        GatewayResponseCache.Key second = itemKey(2);
+        GatewayResponseCache.Key search = cache.key(ITEMS, "/search", 1L, Map.of("text", "дрель"),
+                List.of(GatewayResponseCache.Tag.collection(ITEMS)));
+        GatewayResponseCache.Key request = cache.key(REQUESTS, "/1", 1L, null,
+                List.of(GatewayResponseCache.Tag.resource(REQUESTS, 1)));
+        for (GatewayResponseCache.Key key : List.of(first, second, search, request)) {
+            cache.put(key, response, cache.generation());
+        }
+
+        cache.invalidate(List.of(GatewayResponseCache.Tag.resource(ITEMS, 1)));
+
+        assertThat(cache.get(first)).isNull();
+        assertThat(cache.get(second)).isSameAs(response);
+        assertThat(cache.get(search)).isSameAs(response);
+
+        cache.invalidate(List.of(GatewayResponseCache.Tag.collection(ITEMS)));
+
+        assertThat(cache.get(second)).isSameAs(response);
+        assertThat(cache.get(search)).isNull();
+
+        cache.invalidate(List.of(GatewayResponseCache.Tag.region(ITEMS)));
+
+        assertThat(cache.get(second)).isNull();
+        assertThat(cache.get(request)).isSameAs(response);
+    }
+
+    @Test
+    void userTagEvictsResponsesRequestedByUserTest() {
+        GatewayResponseCache.Key key = itemKey(1);
+        cache.put(key, response, cache.generation());
+
+        cache.invalidate(List.of(GatewayResponseCache.Tag.user(ITEMS, 1)));
+
+        assertThat(cache.get(key)).isNull();
+    }
+
+    @Test
+    void concurrentMissesShareOneUpstreamCallTest() throws Exception {
+        GatewayResponseCache.Key key = itemKey(1);
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Sinks.One<ResponseEntity<Object>> upstream = Sinks.one();
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_MISSES);
+        try {
+            CountDownLatch subscribed = new CountDownLatch(CONCURRENT_MISSES);
+            List<CompletableFuture<ResponseEntity<Object>>> results = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_MISSES; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> cache.singleFlight(key, () -> {
+                            upstreamCalls.incrementAndGet();
+                            return upstream.asMono();
+                        })
+                        .doOnSubscribe(subscription -> subscribed.countDown())
+                        .block(), executor));
+            }
+            assertThat(subscribed.await(5, TimeUnit.SECONDS)).isTrue();
+
+            upstream.tryEmitValue(response);
+
+            for (CompletableFuture<ResponseEntity<Object>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(response);
+            }
+            assertThat(upstreamCalls).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // запрос после получения ответа снова идет к серверу
+        cache.singleFlight(key, () -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.just(response);
+        }).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void invalidateDetachesWaitingRequestsFromOldUpstreamCallTest() {
+        GatewayResponseCache.Key key = itemKey(1);
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Sinks.One<ResponseEntity<Object>> upstream = Sinks.one();
+        Mono<ResponseEntity<Object>> beforeInvalidate = cache.singleFlight(key, () -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.asMono();
+        });
+        beforeInvalidate.subscribe();
+
+        cache.invalidate(List.of(GatewayResponseCache.Tag.resource(ITEMS, 1)));
+        cache.singleFlight(key, () -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.just(response);
+        }).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    private GatewayResponseCache.Key itemKey(long id) {
+        return cache.key(ITEMS, "/" + id, id, null, List.of(GatewayResponseCache.Tag.resource(ITEMS, id)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.client;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Шлюз с одним потоком Tomcat: потоковый ответ сервера не должен занимать этот поток, пока передается тело.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"server.tomcat.threads.max=1", "server.tomcat.threads.min-spare=1"})
+public class ServerResponseBodyTest {
+
+    private static final String SLOW_BODY = "[{\"id\": 1, \"description\": \"first\"}, "
+            + "{\"id\": 2, \"description\": \"second\"}]";
+    private static final String USER_BODY = "{\"id\": 1, \"name\": \"user\", \"email\": \"user@user.com\"}";
+    private static final String ERROR_BODY = "{\"error\": \"Пользователь не найден\"}";
+    private static final String ERROR_HEADER = "X-Error-Id";
+    private static final int SLOW_BODY_PERIOD_SECONDS = 5;
+    private static final int WAIT_SECONDS = 2;
+
+    private static final MockWebServer SERVER = new MockWebServer();
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    int port;
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) throws IOException {
+        SERVER.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath().startsWith("/requests")) {
+                    // первая половина тела приходит сразу, вторая - через период
+                    return new MockResponse()
+                            .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .setBody(SLOW_BODY)
+                            .throttleBody(SLOW_BODY.length() / 2 + 1, SLOW_BODY_PERIOD_SECONDS, TimeUnit.SECONDS);
+                }
+                if (request.getPath().startsWith("/items")) {
+                    return new MockResponse()
+                            .setResponseCode(404)
+                            .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .setHeader(ERROR_HEADER, "42")
+                            .setBody(ERROR_BODY);
+                }
+                return new MockResponse()
+                        .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .setBody(USER_BODY);
+            }
+        });
+        SERVER.start();
+        registry.add("shareit-server.url", () -> SERVER.url("").toString().replaceAll("/$", ""));
+    }
+
+    @AfterAll
+    static void stopServer() throws IOException {
+        SERVER.shutdown();
+    }
+
+    @Test
+    void streamedResponseReleasesServletThreadTest() throws Exception {
+        // начало тела доходит до клиента, пока сервер еще не отдал остальное
+        HttpResponse<InputStream> streamed = httpClient.sendAsync(request("/requests"),
+                        HttpResponse.BodyHandlers.ofInputStream())
+                .get(WAIT_SECONDS, TimeUnit.SECONDS);
+        assertThat(streamed.statusCode()).isEqualTo(200);
+        assertThat(streamed.headers().firstValue(HttpHeaders.CONTENT_TYPE))
+                .hasValueSatisfying(value -> assertThat(value).startsWith(MediaType.APPLICATION_JSON_VALUE));
+
+        // тело первого ответа еще передается, а единственный поток Tomcat уже свободен
+        HttpResponse<String> user = httpClient.send(HttpRequest.newBuilder(URI.create(gatewayUrl("/users/1")))
+                        .timeout(Duration.ofSeconds(WAIT_SECONDS))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(user.statusCode()).isEqualTo(200);
+        assertThat(user.body()).isEqualTo(USER_BODY);
+
+        try (InputStream body = streamed.body()) {
+            assertThat(new String(body.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(SLOW_BODY);
+        }
+    }
+
+    @Test
+    void streamedErrorResponsePassesThroughTest() throws Exception {
+        HttpResponse<String> response = httpClient.send(request("/items"), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(404);
+        assertThat(response.headers().firstValue(ERROR_HEADER)).hasValue("42");
+        assertThat(response.body()).isEqualTo(ERROR_BODY);
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create(gatewayUrl(path)))
+                .header("X-Sharer-User-Id", "1")
+                .build();
+    }
+
+    private String gatewayUrl(String path) {
+        return "http://localhost:" + port + path;
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import ru.practicum.shareit.loadtest.scenario.Operation;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Настройки нагрузочного теста: размер и форма генерируемых данных и профиль нагрузки на шлюз.
+ * Одинаковые {@code randomSeed} и размеры дают одинаковый набор данных.
+ */
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties(prefix = "load-test")
+public class LoadTestProperties {
+
+    Mode mode = Mode.SEED_AND_RUN;
+    long randomSeed = 42;
+    final Data data = new Data();
+    final Run run = new Run();
+
+    public enum Mode {
+        SEED,
+        RUN,
+        SEED_AND_RUN;
+
+        public boolean seeds() {
+            return this != RUN;
+        }
+
+        public boolean runs() {
+            return this != SEED;
+        }
+    }
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Data {
+        int users = 1000;
+        int items = 5000;
+        /** Показатель распределения Ципфа для владельцев вещей: чем больше, тем сильнее перекос. */
+        double ownerSkew = 1.2;
+        /** Доля вещей, добавленных по запросам. */
+        double itemRequestShare = 0.2;
+        double unavailableShare = 0.1;
+        int requests = 1000;
+        /** Среднее число бронирований на вещь, фактическое равномерно от 0 до удвоенного. */
+        int bookingsPerItem = 10;
+        double pastBookingShare = 0.6;
+        double currentBookingShare = 0.1;
+        /** Доля завершенных подтвержденных бронирований, после которых оставлен отзыв. */
+        double commentShare = 0.3;
+        int batchSize = 1000;
+    }
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Run {
+        String gatewayUrl = "http://localhost:8080";
+        int concurrency = 32;
+        Duration warmup = Duration.ofSeconds(10);
+        Duration duration = Duration.ofSeconds(60);
+        Duration requestTimeout = Duration.ofSeconds(10);
+        int pageSize = 20;
+        Path report = Path.of("target", "load-test-report.csv");
+        /** Веса операций в смеси запросов, операции без веса не выполняются. */
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.loadtest.data.Dataset;
+import ru.practicum.shareit.loadtest.data.DatasetGenerator;
+import ru.practicum.shareit.loadtest.scenario.LatencyReport;
+import ru.practicum.shareit.loadtest.scenario.LoadDriver;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LoadTestRunner implements CommandLineRunner {
+
+    LoadTestProperties properties;
+    DatasetGenerator generator;
+    LoadDriver driver;
+
+    @Override
+    public void run(String... args) throws Exception {
+        LoadTestProperties.Mode mode = properties.getMode();
+        if (mode.seeds()) {
+            generator.generate();
+        }
+        if (mode.runs()) {
+            Dataset dataset = generator.load();
+            LatencyReport report = driver.run(dataset);
+            report.log();
+            report.write(properties.getRun().getReport());
+            log.info("Отчет записан в {}", properties.getRun().getReport().toAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.loadtest.data;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+/**
+ * Снимок сгенерированных данных, по которому сценарий выбирает существующие id и подходящих пользователей.
+ */
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class Dataset {
+
+    public static final List<String> WORDS = List.of("Дрель", "Отвертка", "Пила", "Лестница", "Палатка",
+            "Велосипед", "Самокат", "Проектор", "Фотоаппарат", "Гитара", "Удочка", "Сноуборд", "Лыжи",
+            "Перфоратор", "Шуруповерт", "Пылесос", "Утюг", "Мангал", "Рюкзак", "Коляска");
+
+    List<Long> userIds;
+    List<ItemRef> items;
+    List<RequestRef> requests;
+    List<BookingRef> bookings;
+    /** Завершенные подтвержденные бронирования: их авторы могут оставить отзыв. */
+    List<BookingRef> finishedBookings;
+    /** Будущие бронирования, ожидающие решения владельца. */
+    List<BookingRef> waitingBookings;
+
+    @Getter
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public static class ItemRef {
+        long id;
+        long owner;
+        boolean available;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public static class RequestRef {
+        long id;
+        long creator;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public static class BookingRef {
+        long id;
+        long itemId;
+        long booker;
+        long owner;
+    }
+}
@@ -0,0 +1,186 @@
+package ru.practicum.shareit.loadtest.data;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.loadtest.LoadTestProperties;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Заполняет базу сервера синтетическими данными. Таблицы схемы, созданной миграциями сервера,
+ * очищаются со сбросом счетчиков id, поэтому i-я вставленная строка получает id = i
+ * и связи между сущностями задаются номерами без чтения из базы. Последовательность вещей выдает id
+ * блоками по 50, поэтому id вещей задаются явно, а последовательность затем сдвигается за последний id.
+ * <p>
+ * Данные пишутся напрямую через JDBC: завершенные бронирования и отзывы к ним
+ * через API создать нельзя.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class DatasetGenerator {
+
+    private static final String[] STATUSES_DONE = {"APPROVED", "APPROVED", "APPROVED", "APPROVED", "APPROVED",
+            "APPROVED", "APPROVED", "REJECTED", "REJECTED", "CANCELED"};
+    private static final String[] STATUSES_FUTURE = {"WAITING", "WAITING", "WAITING", "WAITING", "WAITING",
+            "APPROVED", "APPROVED", "APPROVED", "REJECTED", "CANCELED"};
+
+    JdbcTemplate jdbcTemplate;
+    LoadTestProperties properties;
+
+    @Transactional
+    public void generate() {
+        LoadTestProperties.Data data = properties.getData();
+        Random random = new Random(properties.getRandomSeed());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        log.info("Генерация данных: пользователей {}, вещей {}, запросов {}", data.getUsers(), data.getItems(),
+                data.getRequests());
+
+        jdbcTemplate.execute("TRUNCATE TABLE item_owner_view, comments, booking, items, requests, users RESTART IDENTITY CASCADE");
+        insertUsers(data);
+        long[] requestCreators = insertRequests(data, random, now);
+        long[] itemOwners = insertItems(data, random, requestCreators);
+        insertBookingsAndComments(data, random, now, itemOwners);
+        // записи витрины владельца помечаются устаревшими, сервер пересчитает их при первом чтении
+        jdbcTemplate.update("insert into item_owner_view (item_id, comments, refresh_at) " +
+                "select id, '[]', timestamp '1970-01-01 00:00:00' from items");
+    }
+
+    private void insertUsers(LoadTestProperties.Data data) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= data.getUsers(); i++) {
+            rows.add(new Object[]{"Пользователь " + i, "user" + i + "@loadtest.shareit"});
+        }
+        batchInsert("insert into users (name, email) values (?, ?)", rows);
+    }
+
+    private long[] insertRequests(LoadTestProperties.Data data, Random random, LocalDateTime now) {
+        long[] creators = new long[data.getRequests() + 1];
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= data.getRequests(); i++) {
+            creators[i] = 1 + random.nextInt(data.getUsers());
+            String word = Dataset.WORDS.get(random.nextInt(Dataset.WORDS.size()));
+            rows.add(new Object[]{"Нужна " + word.toLowerCase() + " на пару дней",
+                    Timestamp.valueOf(now.minusMinutes(random.nextInt(60 * 24 * 90))), creators[i]});
+        }
+        batchInsert("insert into requests (description, created, creator) values (?, ?, ?)", rows);
+        return creators;
+    }
+
+    private long[] insertItems(LoadTestProperties.Data data, Random random, long[] requestCreators) {
+        ZipfSampler owners = new ZipfSampler(data.getUsers(), data.getOwnerSkew());
+        long[] itemOwners = new long[data.getItems() + 1];
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= data.getItems(); i++) {
+            itemOwners[i] = owners.sample(random);
+            String word = Dataset.WORDS.get(random.nextInt(Dataset.WORDS.size()));
+            Long requestId = null;
+            if (data.getRequests() > 0 && random.nextDouble() < data.getItemRequestShare()) {
+                long candidate = 1 + random.nextInt(data.getRequests());
+                if (requestCreators[(int) candidate] != itemOwners[i]) {
+                    requestId = candidate;
+                }
+            }
+            rows.add(new Object[]{i, itemOwners[i], word + " " + i, word + " в хорошем состоянии, вещь " + i,
+                    random.nextDouble() >= data.getUnavailableShare(), requestId});
+        }
+        batchInsert("insert into items (id, owner, name, description, available, request_id) " +
+                "values (?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.queryForObject("select setval('items_seq', ?, false)", Long.class, data.getItems() + 1L);
+        return itemOwners;
+    }
+
+    private void insertBookingsAndComments(LoadTestProperties.Data data, Random random, LocalDateTime now,
+                                           long[] itemOwners) {
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        long bookingCount = 0;
+        for (int item = 1; item <= data.getItems(); item++) {
+            int count = random.nextInt(2 * data.getBookingsPerItem() + 1);
+            for (int i = 0; i < count; i++) {
+                long booker = 1 + random.nextInt(data.getUsers());
+                if (booker == itemOwners[item]) {
+                    continue;
+                }
+                double kind = random.nextDouble();
+                LocalDateTime start;
+                LocalDateTime end;
+                String status;
+                if (kind < data.getPastBookingShare()) {
+                    end = now.minusHours(1 + random.nextInt(24 * 180));
+                    start = end.minusHours(1 + random.nextInt(24 * 7));
+                    status = STATUSES_DONE[random.nextInt(STATUSES_DONE.length)];
+                } else if (kind < data.getPastBookingShare() + data.getCurrentBookingShare()) {
+                    start = now.minusHours(1 + random.nextInt(24 * 3));
+                    end = now.plusHours(1 + random.nextInt(24 * 3));
+                    status = STATUSES_DONE[random.nextInt(STATUSES_DONE.length)];
+                } else {
+                    start = now.plusHours(1 + random.nextInt(24 * 90));
+                    end = start.plusHours(1 + random.nextInt(24 * 7));
+                    status = STATUSES_FUTURE[random.nextInt(STATUSES_FUTURE.length)];
+                }
+                bookings.add(new Object[]{item, booker, Timestamp.valueOf(start), Timestamp.valueOf(end), status});
+                bookingCount++;
+                if (end.isBefore(now) && "APPROVED".equals(status) && random.nextDouble() < data.getCommentShare()) {
+                    comments.add(new Object[]{"Все отлично, спасибо!", item, booker,
+                            Timestamp.valueOf(end.plusHours(1 + random.nextInt(48)))});
+                }
+                if (bookings.size() == data.getBatchSize()) {
+                    insertBookings(bookings);
+                    bookings.clear();
+                }
+            }
+        }
+        insertBookings(bookings);
+        batchInsert("insert into comments (text, item_id, author_id, created) values (?, ?, ?, ?)", comments);
+        log.info("Добавлено бронирований {}, отзывов {}", bookingCount, comments.size());
+    }
+
+    private void insertBookings(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into booking (item_id, booker_id, start_booking, end_booking, status) " +
+                "values (?, ?, ?, ?, ?)", rows);
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows) {
+        int batchSize = properties.getData().getBatchSize();
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Dataset load() {
+        List<Long> userIds = jdbcTemplate.queryForList("select id from users order by id", Long.class);
+        List<Dataset.ItemRef> items = jdbcTemplate.query("select id, owner, available from items order by id",
+                (rs, rowNum) -> new Dataset.ItemRef(rs.getLong("id"), rs.getLong("owner"),
+                        rs.getBoolean("available")));
+        List<Dataset.RequestRef> requests = jdbcTemplate.query("select id, creator from requests order by id",
+                (rs, rowNum) -> new Dataset.RequestRef(rs.getLong("id"), rs.getLong("creator")));
+        String bookingSelect = "select b.id, b.item_id, b.booker_id, i.owner from booking b " +
+                "join items i on i.id = b.item_id ";
+        List<Dataset.BookingRef> bookings = queryBookings(bookingSelect + "order by b.id");
+        List<Dataset.BookingRef> finished = queryBookings(bookingSelect +
+                "where b.status = 'APPROVED' and b.end_booking < current_timestamp order by b.id");
+        List<Dataset.BookingRef> waiting = queryBookings(bookingSelect +
+                "where b.status = 'WAITING' and b.start_booking > current_timestamp order by b.id");
+        log.info("Загружены данные: пользователей {}, вещей {}, запросов {}, бронирований {}", userIds.size(),
+                items.size(), requests.size(), bookings.size());
+        return new Dataset(userIds, items, requests, bookings, finished, waiting);
+    }
+
+    private List<Dataset.BookingRef> queryBookings(String sql) {
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new Dataset.BookingRef(rs.getLong("id"),
+                rs.getLong("item_id"), rs.getLong("booker_id"), rs.getLong("owner")));
+    }
+}
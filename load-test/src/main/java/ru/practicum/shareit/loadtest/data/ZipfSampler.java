@@ -0,0 +1,33 @@
+package ru.practicum.shareit.loadtest.data;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Выбор номера от 1 до n с вероятностью, обратно пропорциональной номеру в степени {@code exponent}:
+ * первые номера выпадают намного чаще остальных.
+ */
+public class ZipfSampler {
+
+    private final double[] cumulative;
+
+    public ZipfSampler(int n, double exponent) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, cumulative.length - 1) + 1;
+    }
+}
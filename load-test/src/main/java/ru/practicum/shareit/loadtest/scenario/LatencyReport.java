@@ -0,0 +1,111 @@
+package ru.practicum.shareit.loadtest.scenario;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки и пропускная способность по операциям за время измерения (без прогрева).
+ * Задержки хранятся в микросекундах, в отчет выводятся в миллисекундах.
+ */
+@Slf4j
+public class LatencyReport {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final String HEADER = "operation,method,path,requests,non_2xx,failures,throughput_rps," +
+            "p50_ms,p90_ms,p99_ms,max_ms";
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> non2xx = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> failures = new EnumMap<>(Operation.class);
+    private Duration measured = Duration.ZERO;
+
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            non2xx.put(operation, new LongAdder());
+            failures.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long latencyNanos, int status) {
+        latencies.get(operation).recordValue(Math.min(MAX_LATENCY_MICROS,
+                TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        if (status < 200 || status >= 300) {
+            non2xx.get(operation).increment();
+        }
+    }
+
+    void recordFailure(Operation operation) {
+        failures.get(operation).increment();
+    }
+
+    void setMeasured(Duration measured) {
+        this.measured = measured;
+    }
+
+    public void log() {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%n%-20s %9s %8s %8s %10s %9s %9s %9s %9s",
+                "operation", "requests", "non-2xx", "failures", "rps", "p50, ms", "p90, ms", "p99, ms", "max, ms"));
+        long total = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            if (histogram.getTotalCount() == 0 && failures.get(operation).sum() == 0) {
+                continue;
+            }
+            total += histogram.getTotalCount();
+            table.append(String.format(Locale.ROOT, "%n%-20s %9d %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f",
+                    operation, histogram.getTotalCount(), non2xx.get(operation).sum(), failures.get(operation).sum(),
+                    throughput(histogram), percentile(histogram, 50), percentile(histogram, 90),
+                    percentile(histogram, 99), millis(histogram.getMaxValue())));
+        }
+        table.append(String.format(Locale.ROOT, "%nВсего запросов %d за %d с, %.1f запросов в секунду", total,
+                measured.toSeconds(), total / seconds()));
+        log.info("Результаты нагрузочного теста:{}", table);
+    }
+
+    public void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            writer.println(HEADER);
+            for (Operation operation : Operation.values()) {
+                Histogram histogram = latencies.get(operation);
+                writer.println(String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f",
+                        operation, operation.getMethod(), operation.getPath(), histogram.getTotalCount(),
+                        non2xx.get(operation).sum(), failures.get(operation).sum(), throughput(histogram),
+                        percentile(histogram, 50), percentile(histogram, 90), percentile(histogram, 99),
+                        millis(histogram.getMaxValue())));
+            }
+        }
+    }
+
+    private double throughput(Histogram histogram) {
+        return histogram.getTotalCount() / seconds();
+    }
+
+    private double seconds() {
+        return Math.max(1, measured.toMillis()) / 1000.0;
+    }
+
+    private static double percentile(Histogram histogram, double percentile) {
+        return millis(histogram.getValueAtPercentile(percentile));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
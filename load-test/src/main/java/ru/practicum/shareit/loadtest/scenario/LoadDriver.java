@@ -0,0 +1,114 @@
+package ru.practicum.shareit.loadtest.scenario;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.loadtest.LoadTestProperties;
+import ru.practicum.shareit.loadtest.data.Dataset;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Нагружает шлюз с заданным числом параллельных клиентов. Каждый клиент отправляет следующий запрос
+ * сразу после ответа на предыдущий, операция выбирается случайно согласно весам смеси.
+ * Ответы за время прогрева не учитываются.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LoadDriver {
+
+    LoadTestProperties properties;
+    ObjectMapper mapper;
+
+    public LatencyReport run(Dataset dataset) throws InterruptedException {
+        LoadTestProperties.Run run = properties.getRun();
+        Operation[] mix = weightedMix(run.getMix());
+        ScenarioRequests requests = new ScenarioRequests(run, dataset, mapper);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(run.getRequestTimeout())
+                .build();
+        LatencyReport report = new LatencyReport();
+
+        long started = System.nanoTime();
+        long measureFrom = started + run.getWarmup().toNanos();
+        long measureTo = measureFrom + run.getDuration().toNanos();
+        log.info("Нагрузка на {}: клиентов {}, прогрев {}, измерение {}", run.getGatewayUrl(), run.getConcurrency(),
+                run.getWarmup(), run.getDuration());
+
+        ExecutorService executor = Executors.newFixedThreadPool(run.getConcurrency());
+        CountDownLatch finished = new CountDownLatch(run.getConcurrency());
+        for (int i = 0; i < run.getConcurrency(); i++) {
+            Random random = new Random(properties.getRandomSeed() + i);
+            executor.execute(() -> {
+                try {
+                    while (System.nanoTime() < measureTo && !Thread.currentThread().isInterrupted()) {
+                        Operation operation = mix[random.nextInt(mix.length)];
+                        ScenarioRequests.Call call = requests.build(operation, random);
+                        if (call != null) {
+                            execute(client, call, operation, report, measureFrom, measureTo);
+                        }
+                    }
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+        finished.await();
+        executor.shutdown();
+        report.setMeasured(run.getDuration());
+        return report;
+    }
+
+    private void execute(HttpClient client, ScenarioRequests.Call call, Operation operation, LatencyReport report,
+                         long measureFrom, long measureTo) {
+        long start = System.nanoTime();
+        boolean measured = start >= measureFrom && start < measureTo;
+        try {
+            HttpResponse<String> response = client.send(call.getRequest(), HttpResponse.BodyHandlers.ofString());
+            if (measured) {
+                report.record(operation, System.nanoTime() - start, response.statusCode());
+            }
+            if (call.getOnSuccess() != null && response.statusCode() / 100 == 2) {
+                call.getOnSuccess().accept(response.body());
+            }
+        } catch (IOException e) {
+            if (measured) {
+                report.recordFailure(operation);
+            }
+            log.debug("Ошибка запроса {}: {}", operation, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Операции, повторенные по своему весу: случайный выбор элемента дает заданные доли.
+     */
+    private static Operation[] weightedMix(Map<Operation, Integer> weights) {
+        List<Operation> mix = new ArrayList<>();
+        weights.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                mix.add(operation);
+            }
+        });
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Не задана смесь запросов: load-test.run.mix");
+        }
+        return mix.toArray(new Operation[0]);
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.loadtest.scenario;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Операции API шлюза из share-it-spec.json, из которых составляется смесь запросов.
+ * Удаление пользователей и вещей в смесь не входит: оно разрушает набор данных во время прогона.
+ */
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public enum Operation {
+    GET_USERS("GET", "/users"),
+    GET_USER("GET", "/users/{id}"),
+    CREATE_USER("POST", "/users"),
+    UPDATE_USER("PATCH", "/users/{id}"),
+    GET_OWNER_ITEMS("GET", "/items"),
+    GET_ITEM("GET", "/items/{itemId}"),
+    SEARCH_ITEMS("GET", "/items/search"),
+    CREATE_ITEM("POST", "/items"),
+    UPDATE_ITEM("PATCH", "/items/{itemId}"),
+    CREATE_COMMENT("POST", "/items/{itemId}/comment"),
+    GET_BOOKINGS("GET", "/bookings"),
+    GET_OWNER_BOOKINGS("GET", "/bookings/owner"),
+    GET_BOOKING("GET", "/bookings/{bookingId}"),
+    CREATE_BOOKING("POST", "/bookings"),
+    APPROVE_BOOKING("PATCH", "/bookings/{bookingId}"),
+    GET_OWN_REQUESTS("GET", "/requests"),
+    GET_ALL_REQUESTS("GET", "/requests/all"),
+    GET_REQUEST("GET", "/requests/{requestId}"),
+    CREATE_REQUEST("POST", "/requests");
+
+    String method;
+    String path;
+}
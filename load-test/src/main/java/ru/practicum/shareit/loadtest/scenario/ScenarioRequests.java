@@ -0,0 +1,246 @@
+package ru.practicum.shareit.loadtest.scenario;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.loadtest.LoadTestProperties;
+import ru.practicum.shareit.loadtest.data.Dataset;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Строит запросы к шлюзу для операций сценария. Пользователи, вещи и бронирования выбираются
+ * из снимка данных так, чтобы запрос был допустимым: бронирует не владелец, подтверждает владелец,
+ * отзыв оставляет арендатор после окончания аренды.
+ */
+class ScenarioRequests {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+
+    private final String gatewayUrl;
+    private final LoadTestProperties.Run run;
+    private final Dataset dataset;
+    private final List<Dataset.ItemRef> availableItems;
+    private final Queue<Dataset.BookingRef> waitingBookings;
+    private final ObjectMapper mapper;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong createdUsers = new AtomicLong();
+
+    ScenarioRequests(LoadTestProperties.Run run, Dataset dataset, ObjectMapper mapper) {
+        this.gatewayUrl = run.getGatewayUrl();
+        this.run = run;
+        this.dataset = dataset;
+        this.availableItems = dataset.getItems().stream()
+                .filter(Dataset.ItemRef::isAvailable)
+                .collect(Collectors.toList());
+        this.waitingBookings = new ConcurrentLinkedQueue<>(dataset.getWaitingBookings());
+        this.mapper = mapper;
+    }
+
+    /**
+     * Запрос вместе с обработчиком успешного ответа.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    static class Call {
+        HttpRequest request;
+        @Nullable
+        Consumer<String> onSuccess;
+    }
+
+    /**
+     * Запрос для операции или {@code null}, если для нее сейчас нет подходящих данных.
+     */
+    @Nullable
+    Call build(Operation operation, Random random) {
+        if (operation == Operation.CREATE_BOOKING) {
+            return createBooking(random);
+        }
+        HttpRequest request = buildRequest(operation, random);
+        return request == null ? null : new Call(request, null);
+    }
+
+    @Nullable
+    private HttpRequest buildRequest(Operation operation, Random random) {
+        switch (operation) {
+            case GET_USERS:
+                return get("/users?from=" + random.nextInt(Math.max(1, dataset.getUserIds().size())) +
+                        "&size=" + run.getPageSize(), null);
+            case GET_USER:
+                return get("/users/" + anyUser(random), null);
+            case CREATE_USER:
+                long n = createdUsers.incrementAndGet();
+                return send("POST", "/users", null, Map.of(
+                        "name", "Нагрузка " + n,
+                        "email", "load-" + runId + "-" + n + "@loadtest.shareit"));
+            case UPDATE_USER:
+                return send("PATCH", "/users/" + anyUser(random), null, Map.of("name", "Пользователь " +
+                        random.nextInt(1000)));
+            case GET_OWNER_ITEMS:
+                return get("/items?from=0&size=" + run.getPageSize(), pick(dataset.getItems(), random).getOwner());
+            case GET_ITEM:
+                Dataset.ItemRef item = pick(dataset.getItems(), random);
+                return get("/items/" + item.getId(), random.nextInt(3) == 0 ? item.getOwner() : anyUser(random));
+            case SEARCH_ITEMS:
+                return get("/items/search?text=" + encode(pick(Dataset.WORDS, random)) + "&from=0&size=" +
+                        run.getPageSize(), anyUser(random));
+            case CREATE_ITEM:
+                String word = pick(Dataset.WORDS, random);
+                return send("POST", "/items", anyUser(random), Map.of(
+                        "name", word,
+                        "description", word + " почти новая",
+                        "available", true));
+            case UPDATE_ITEM:
+                Dataset.ItemRef updated = pick(dataset.getItems(), random);
+                return send("PATCH", "/items/" + updated.getId(), updated.getOwner(),
+                        Map.of("description", "Обновленное описание " + random.nextInt(1000)));
+            case CREATE_COMMENT:
+                if (dataset.getFinishedBookings().isEmpty()) {
+                    return null;
+                }
+                Dataset.BookingRef finished = pick(dataset.getFinishedBookings(), random);
+                return send("POST", "/items/" + finished.getItemId() + "/comment", finished.getBooker(),
+                        Map.of("text", "Отличная вещь"));
+            case GET_BOOKINGS:
+                Dataset.BookingRef booked = bookingOrNull(random);
+                return get("/bookings?state=" + pick(STATES, random) + "&from=0&size=" + run.getPageSize(),
+                        booked == null ? anyUser(random) : booked.getBooker());
+            case GET_OWNER_BOOKINGS:
+                return get("/bookings/owner?state=" + pick(STATES, random) + "&from=0&size=" + run.getPageSize(),
+                        pick(dataset.getItems(), random).getOwner());
+            case GET_BOOKING:
+                Dataset.BookingRef booking = bookingOrNull(random);
+                if (booking == null) {
+                    return null;
+                }
+                return get("/bookings/" + booking.getId(), random.nextBoolean() ? booking.getBooker() :
+                        booking.getOwner());
+            case APPROVE_BOOKING:
+                Dataset.BookingRef waiting = waitingBookings.poll();
+                if (waiting == null) {
+                    return null;
+                }
+                return send("PATCH", "/bookings/" + waiting.getId() + "?approved=" + (random.nextInt(4) != 0),
+                        waiting.getOwner(), null);
+            case GET_OWN_REQUESTS:
+                return get("/requests?from=0&size=" + run.getPageSize(), dataset.getRequests().isEmpty() ?
+                        anyUser(random) : pick(dataset.getRequests(), random).getCreator());
+            case GET_ALL_REQUESTS:
+                return get("/requests/all?from=0&size=" + run.getPageSize(), anyUser(random));
+            case GET_REQUEST:
+                if (dataset.getRequests().isEmpty()) {
+                    return null;
+                }
+                return get("/requests/" + pick(dataset.getRequests(), random).getId(), anyUser(random));
+            case CREATE_REQUEST:
+                return send("POST", "/requests", anyUser(random),
+                        Map.of("description", "Нужна " + pick(Dataset.WORDS, random).toLowerCase()));
+            default:
+                throw new IllegalArgumentException("Неизвестная операция: " + operation);
+        }
+    }
+
+    /**
+     * Созданное бронирование становится кандидатом на подтверждение владельцем.
+     */
+    @Nullable
+    private Call createBooking(Random random) {
+        if (availableItems.isEmpty()) {
+            return null;
+        }
+        Dataset.ItemRef item = pick(availableItems, random);
+        long booker = anyUser(random);
+        if (booker == item.getOwner()) {
+            return null;
+        }
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)
+                .plusHours(1 + random.nextInt(24 * 60));
+        LocalDateTime end = start.plusHours(1 + random.nextInt(24 * 7));
+        HttpRequest request = send("POST", "/bookings", booker, Map.of(
+                "itemId", item.getId(),
+                "start", start.format(DATE_FORMAT),
+                "end", end.format(DATE_FORMAT)));
+        return new Call(request, body -> waitingBookings.add(
+                new Dataset.BookingRef(readId(body), item.getId(), booker, item.getOwner())));
+    }
+
+    private long readId(String body) {
+        try {
+            JsonNode id = mapper.readTree(body).get("id");
+            return id.asLong();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Некорректный ответ шлюза: " + body, e);
+        }
+    }
+
+    @Nullable
+    private Dataset.BookingRef bookingOrNull(Random random) {
+        return dataset.getBookings().isEmpty() ? null : pick(dataset.getBookings(), random);
+    }
+
+    private long anyUser(Random random) {
+        return pick(dataset.getUserIds(), random);
+    }
+
+    private HttpRequest get(String path, @Nullable Long userId) {
+        return send("GET", path, userId, null);
+    }
+
+    private HttpRequest send(String method, String path, @Nullable Long userId, @Nullable Object body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path))
+                .timeout(run.getRequestTimeout())
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() :
+                        HttpRequest.BodyPublishers.ofString(json(body)));
+        if (userId != null) {
+            builder.header(USER_HEADER, String.valueOf(userId));
+        }
+        return builder.build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(gatewayUrl + path);
+    }
+
+    private String json(Object body) {
+        try {
+            return mapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать тело запроса", e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static <T> T pick(List<T> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static <T> T pick(T[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -3,9 +3,11 @@ package ru.practicum.shareit.booking;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.service.BookingService;
 
@@ -24,6 +26,8 @@ public class BookingController {
     private static final String USER_HEADER = "X-Sharer-User-Id";
     private static final  String ID_PATH = "/{bookingId}";
     private static final  String OWNER_PATH = "/owner";
+    private static final  String BULK_PATH = "/bulk";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     BookingService service;
 
@@ -32,6 +36,12 @@ public class BookingController {
         return service.createBooking(userId, dto);
     }
 
+    @PostMapping(BULK_PATH)
+    List<BookingResponseDto> createBookings(@RequestHeader(USER_HEADER) Long userId,
+                                            @RequestBody List<BookingCreationDto> dtos) {
+        return service.createBookings(userId, dtos);
+    }
+
     @PatchMapping(ID_PATH)
     BookingResponseDto approveBooking(@RequestHeader(USER_HEADER) Long userId, @PathVariable Long bookingId,
                                       @RequestParam(name = "approved") Boolean isApproved) {
@@ -43,15 +53,51 @@ public class BookingController {
         return service.getBookingById(userId, bookingId);
     }
 
+    @GetMapping(params = "ids")
+    List<BookingResponseDto> getBookingsByIds(@RequestHeader(USER_HEADER) Long userId, @RequestParam List<Long> ids) {
+        return service.getBookingsByIds(userId, ids);
+    }
+
+    /**
+     * Без {@code cursor} возвращает страницу по смещению {@code from}, с {@code cursor} из заголовка
+     * {@value #NEXT_CURSOR_HEADER} предыдущего ответа — следующие {@code size} бронирований после него.
+     * Пустой {@code cursor} начинает выборку по курсору с первой страницы, {@code from} при этом не учитывается.
+     * Заголовок {@value #NEXT_CURSOR_HEADER} есть в ответе, пока страница заполнена целиком.
+     */
     @GetMapping
-    List<BookingResponseDto> getUserBookings(@RequestHeader(USER_HEADER) Long userId, @RequestParam String state,
-                                             @RequestParam int from, @RequestParam int size) {
-        return service.getBookingsByUser(userId, state, from, size);
+    ResponseEntity<List<BookingResponseDto>> getUserBookings(@RequestHeader(USER_HEADER) Long userId,
+                                                             @RequestParam String state,
+                                                             @RequestParam int from, @RequestParam int size,
+                                                             @RequestParam(required = false) String cursor) {
+        List<BookingResponseDto> bookings = cursor == null || cursor.isEmpty()
+                ? service.getBookingsByUser(userId, state, firstOffset(from, cursor), size)
+                : service.getBookingsByUserAfter(userId, state, cursor, size);
+        return withNextCursor(bookings, size);
     }
 
+    /**
+     * Бронирования вещей владельца, постранично так же, как в {@link #getUserBookings}.
+     */
     @GetMapping(OWNER_PATH)
-    List<BookingResponseDto> getOwnerBookings(@RequestHeader(USER_HEADER) Long userId, @RequestParam String state,
-                                              @RequestParam int from, @RequestParam int size) {
-        return service.getBookingsByOwner(userId, state, from, size);
+    ResponseEntity<List<BookingResponseDto>> getOwnerBookings(@RequestHeader(USER_HEADER) Long userId,
+                                                              @RequestParam String state,
+                                                              @RequestParam int from, @RequestParam int size,
+                                                              @RequestParam(required = false) String cursor) {
+        List<BookingResponseDto> bookings = cursor == null || cursor.isEmpty()
+                ? service.getBookingsByOwner(userId, state, firstOffset(from, cursor), size)
+                : service.getBookingsByOwnerAfter(userId, state, cursor, size);
+        return withNextCursor(bookings, size);
+    }
+
+    private static int firstOffset(int from, String cursor) {
+        return cursor == null ? from : 0;
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> withNextCursor(List<BookingResponseDto> bookings, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, BookingCursor.of(bookings.get(bookings.size() - 1)).encode());
+        }
+        return response.body(bookings);
     }
 }
@@ -4,11 +4,13 @@ import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
 import lombok.experimental.FieldDefaults;
+import lombok.extern.jackson.Jacksonized;
 import ru.practicum.shareit.booking.model.BookStatus;
 
 import java.time.LocalDateTime;
 
 @Builder
+@Jacksonized
 @Data
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class BookingInfoInItem {
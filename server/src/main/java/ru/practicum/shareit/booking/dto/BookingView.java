@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.model.BookStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка списка бронирований: поля бронирования, арендатора и вещи, выбранные одним запросом без загрузки сущностей.
+ */
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookingView {
+    Long id;
+    LocalDateTime start;
+    LocalDateTime end;
+    BookStatus status;
+    Long bookerId;
+    String bookerName;
+    String bookerEmail;
+    Long itemId;
+    String itemName;
+    String itemDescription;
+    Boolean itemAvailable;
+}
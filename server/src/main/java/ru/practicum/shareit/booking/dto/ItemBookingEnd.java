@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ближайшее окончание текущего бронирования вещи.
+ */
+public interface ItemBookingEnd {
+    Long getItemId();
+
+    LocalDateTime getBookingEnd();
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.exceptions;
+
+public class BookingStatusConflictException extends RuntimeException {
+    public BookingStatusConflictException(String message) {
+        super(message);
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.mapper;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
 import ru.practicum.shareit.booking.dto.BookingInfoInItem;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -13,6 +14,8 @@ public interface BookingMapper {
 
     BookingResponseDto bookingToBookingResponseDto(Booking booking);
 
+    BookingResponseDto bookingViewToBookingResponseDto(BookingView view);
+
     BookingInfoInItem bookingToBookingInfoInItem(Booking booking);
 
 }
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
 import ru.practicum.shareit.booking.dto.BookingInfoInItem;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.BookStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.ItemInfoInBooking;
@@ -49,6 +50,29 @@ public class BookingMapperImpl implements BookingMapper {
                 .build();
     }
 
+    @Override
+    public BookingResponseDto bookingViewToBookingResponseDto(BookingView view) {
+        UserResponseDto user = UserResponseDto.builder()
+                .id(view.getBookerId())
+                .name(view.getBookerName())
+                .email(view.getBookerEmail())
+                .build();
+        ItemInfoInBooking item = ItemInfoInBooking.builder()
+                .id(view.getItemId())
+                .name(view.getItemName())
+                .description(view.getItemDescription())
+                .available(view.getItemAvailable())
+                .build();
+        return BookingResponseDto.builder()
+                .id(view.getId())
+                .status(view.getStatus())
+                .start(view.getStart())
+                .end(view.getEnd())
+                .booker(user)
+                .item(item)
+                .build();
+    }
+
     @Override
     public BookingInfoInItem bookingToBookingInfoInItem(Booking booking) {
         return BookingInfoInItem.builder()
@@ -2,54 +2,203 @@ package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.dto.ItemBookingEnd;
 import ru.practicum.shareit.booking.model.BookStatus;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findAllByBookerIdAndStatusInOrderByStartDesc(Long bookerId, Collection<BookStatus> status,
-                                                               Pageable pageable);
+
+    String SELECT_VIEW = "select new ru.practicum.shareit.booking.dto.BookingView(b.id, b.start, b.end, b.status, " +
+            "u.id, u.name, u.email, i.id, i.name, i.description, i.available) " +
+            "from Booking b join b.booker u join b.item i ";
+    String BY_BOOKER = "where u.id = :bookerId and b.status in :status ";
+    String BY_OWNER = "where i.owner = :ownerId and b.status in :status ";
+    String PAST = "and b.end < :now ";
+    String FUTURE = "and b.start > :now ";
+    String CURRENT = "and b.start < :now and b.end > :now ";
+    String AFTER_CURSOR = "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) ";
+    String ORDER = "order by b.start desc, b.id desc";
+
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
+
+    /**
+     * Меняет статус, только если бронирование все еще в статусе {@code expected}. Вернет 0, если другой запрос
+     * успел изменить статус раньше. Контекст персистентности очищается, чтобы прочитанное бронирование
+     * не записалось повторно при сбросе изменений.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.status = :status where b.id = :id and b.status = :expected")
+    int updateStatus(@Param("id") Long id,
+                     @Param("expected") BookStatus expected,
+                     @Param("status") BookStatus status);
+
+    @Query(SELECT_VIEW + "where b.id in :ids and (u.id = :userId or i.owner = :userId) " + ORDER)
+    List<BookingView> findVisibleBookings(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
 
     Page<Booking> findAllByBookerIdAndStatusInAndEndIsBeforeOrderByStartDesc(Long bookerId,
                                                                              Collection<BookStatus> status,
                                                                              LocalDateTime end,
                                                                              Pageable pageable);
 
-    Page<Booking> findAllByBookerIdAndStatusInAndStartIsAfterOrderByStartDesc(Long bookerId,
-                                                                              Collection<BookStatus> status,
-                                                                              LocalDateTime start,
-                                                                              Pageable pageable);
+    @Query(SELECT_VIEW + BY_BOOKER + ORDER)
+    List<BookingView> findBookerBookings(@Param("bookerId") Long bookerId,
+                                         @Param("status") Collection<BookStatus> status,
+                                         Pageable pageable);
+
+    @Query(SELECT_VIEW + BY_BOOKER + PAST + ORDER)
+    List<BookingView> findBookerPastBookings(@Param("bookerId") Long bookerId,
+                                             @Param("status") Collection<BookStatus> status,
+                                             @Param("now") LocalDateTime now,
+                                             Pageable pageable);
+
+    @Query(SELECT_VIEW + BY_BOOKER + FUTURE + ORDER)
+    List<BookingView> findBookerFutureBookings(@Param("bookerId") Long bookerId,
+                                               @Param("status") Collection<BookStatus> status,
+                                               @Param("now") LocalDateTime now,
+                                               Pageable pageable);
+
+    @Query(SELECT_VIEW + BY_BOOKER + CURRENT + ORDER)
+    List<BookingView> findBookerCurrentBookings(@Param("bookerId") Long bookerId,
+                                                @Param("status") Collection<BookStatus> status,
+                                                @Param("now") LocalDateTime now,
+                                                Pageable pageable);
+
+    @Query(SELECT_VIEW + BY_OWNER + ORDER)
+    List<BookingView> findOwnerBookings(@Param("ownerId") Long ownerId,
+                                        @Param("status") Collection<BookStatus> status,
+                                        Pageable pageable);
+
+    @Query(SELECT_VIEW + BY_OWNER + PAST + ORDER)
+    List<BookingView> findOwnerPastBookings(@Param("ownerId") Long ownerId,
+                                            @Param("status") Collection<BookStatus> status,
+                                            @Param("now") LocalDateTime now,
+                                            Pageable pageable);
+
+    @Query(SELECT_VIEW + BY_OWNER + FUTURE + ORDER)
+    List<BookingView> findOwnerFutureBookings(@Param("ownerId") Long ownerId,
+                                              @Param("status") Collection<BookStatus> status,
+                                              @Param("now") LocalDateTime now,
+                                              Pageable pageable);
+
+    @Query(SELECT_VIEW + BY_OWNER + CURRENT + ORDER)
+    List<BookingView> findOwnerCurrentBookings(@Param("ownerId") Long ownerId,
+                                               @Param("status") Collection<BookStatus> status,
+                                               @Param("now") LocalDateTime now,
+                                               Pageable pageable);
+
+    @Query(SELECT_VIEW + BY_BOOKER + AFTER_CURSOR + ORDER)
+    List<BookingView> findBookerBookingsAfter(@Param("bookerId") Long bookerId,
+                                              @Param("status") Collection<BookStatus> status,
+                                              @Param("cursorStart") LocalDateTime cursorStart,
+                                              @Param("cursorId") Long cursorId,
+                                              Pageable pageable);
+
+    @Query(SELECT_VIEW + BY_BOOKER + PAST + AFTER_CURSOR + ORDER)
+    List<BookingView> findBookerPastBookingsAfter(@Param("bookerId") Long bookerId,
+                                                  @Param("status") Collection<BookStatus> status,
+                                                  @Param("now") LocalDateTime now,
+                                                  @Param("cursorStart") LocalDateTime cursorStart,
+                                                  @Param("cursorId") Long cursorId,
+                                                  Pageable pageable);
+
+    @Query(SELECT_VIEW + BY_BOOKER + FUTURE + AFTER_CURSOR + ORDER)
+    List<BookingView> findBookerFutureBookingsAfter(@Param("bookerId") Long bookerId,
+                                                    @Param("status") Collection<BookStatus> status,
+                                                    @Param("now") LocalDateTime now,
+                                                    @Param("cursorStart") LocalDateTime cursorStart,
+                                                    @Param("cursorId") Long cursorId,
+                                                    Pageable pageable);
+
+    @Query(SELECT_VIEW + BY_BOOKER + CURRENT + AFTER_CURSOR + ORDER)
+    List<BookingView> findBookerCurrentBookingsAfter(@Param("bookerId") Long bookerId,
+                                                     @Param("status") Collection<BookStatus> status,
+                                                     @Param("now") LocalDateTime now,
+                                                     @Param("cursorStart") LocalDateTime cursorStart,
+                                                     @Param("cursorId") Long cursorId,
+                                                     Pageable pageable);
+
+    @Query(SELECT_VIEW + BY_OWNER + AFTER_CURSOR + ORDER)
+    List<BookingView> findOwnerBookingsAfter(@Param("ownerId") Long ownerId,
+                                             @Param("status") Collection<BookStatus> status,
+                                             @Param("cursorStart") LocalDateTime cursorStart,
+                                             @Param("cursorId") Long cursorId,
+                                             Pageable pageable);
+
+    @Query(SELECT_VIEW + BY_OWNER + PAST + AFTER_CURSOR + ORDER)
+    List<BookingView> findOwnerPastBookingsAfter(@Param("ownerId") Long ownerId,
+                                                 @Param("status") Collection<BookStatus> status,
+                                                 @Param("now") LocalDateTime now,
+                                                 @Param("cursorStart") LocalDateTime cursorStart,
+                                                 @Param("cursorId") Long cursorId,
+                                                 Pageable pageable);
+
+    @Query(SELECT_VIEW + BY_OWNER + FUTURE + AFTER_CURSOR + ORDER)
+    List<BookingView> findOwnerFutureBookingsAfter(@Param("ownerId") Long ownerId,
+                                                   @Param("status") Collection<BookStatus> status,
+                                                   @Param("now") LocalDateTime now,
+                                                   @Param("cursorStart") LocalDateTime cursorStart,
+                                                   @Param("cursorId") Long cursorId,
+                                                   Pageable pageable);
+
+    @Query(SELECT_VIEW + BY_OWNER + CURRENT + AFTER_CURSOR + ORDER)
+    List<BookingView> findOwnerCurrentBookingsAfter(@Param("ownerId") Long ownerId,
+                                                    @Param("status") Collection<BookStatus> status,
+                                                    @Param("now") LocalDateTime now,
+                                                    @Param("cursorStart") LocalDateTime cursorStart,
+                                                    @Param("cursorId") Long cursorId,
+                                                    Pageable pageable);
 
-    Page<Booking> findAllByBookerIdAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Long bookerId,
-                                                                                          Collection<BookStatus> status,
-                                                                                            LocalDateTime start,
-                                                                                            LocalDateTime end,
-                                                                                            Pageable pageable);
+    boolean existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(Long itemId, Collection<BookStatus> status,
+                                                                   LocalDateTime end, LocalDateTime start);
 
-    Page<Booking> findAllByItem_OwnerAndStatusInOrderByStartDesc(Long itemOwner, Collection<BookStatus> status,
-                                                                 Pageable pageable);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingPeriod(b.item.id, b.start, b.end) from Booking b " +
+            "where b.item.id in :itemIds and b.status in :status")
+    List<BookingPeriod> findPeriodsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                             @Param("status") Collection<BookStatus> status);
 
-    Page<Booking> findAllByItem_OwnerAndStatusInAndEndIsBeforeOrderByStartDesc(Long bookerId,
-                                                                               Collection<BookStatus> status,
-                                                                               LocalDateTime end,
-                                                                               Pageable pageable);
+    Booking findFirstByItemIdAndEndBeforeOrderByEndDescIdAsc(Long itemId, LocalDateTime end);
 
-    Page<Booking> findAllByItem_OwnerAndStatusInAndStartIsAfterOrderByStartDesc(Long bookerId,
-                                                                                Collection<BookStatus> status,
-                                                                                LocalDateTime start,
-                                                                                Pageable pageable);
+    Booking findFirstByItemIdAndStartAfterOrderByStartAscIdAsc(Long itemId, LocalDateTime start);
 
-    Page<Booking> findAllByItem_OwnerAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Long bookerId,
-                                                                                         Collection<BookStatus> status,
-                                                                                              LocalDateTime start,
-                                                                                              LocalDateTime end,
-                                                                                              Pageable pageable);
+    /**
+     * Последние бронирования вещей. Из бронирований с одинаковым концом первым для вещи идет бронирование
+     * с меньшим id, так же как в {@link #findFirstByItemIdAndEndBeforeOrderByEndDescIdAsc}.
+     */
+    @Query("select b from Booking b " +
+            "where b.item.id in :itemIds and b.end = " +
+            "(select max(l.end) from Booking l where l.item.id = b.item.id and l.end < :now) " +
+            "order by b.item.id, b.id")
+    List<Booking> findLastBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("now") LocalDateTime now);
 
-    Booking findFirstByItemIdAndEndBeforeOrderByEndDesc(Long itemId, LocalDateTime end);
+    /**
+     * Следующие бронирования вещей с тем же порядком среди одинаковых начал, что и
+     * {@link #findFirstByItemIdAndStartAfterOrderByStartAscIdAsc}.
+     */
+    @Query("select b from Booking b " +
+            "where b.item.id in :itemIds and b.start = " +
+            "(select min(n.start) from Booking n where n.item.id = b.item.id and n.start > :now) " +
+            "order by b.item.id, b.id")
+    List<Booking> findNextBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("now") LocalDateTime now);
 
-    Booking findFirstByItemIdAndStartAfterOrderByStart(Long itemId, LocalDateTime start);
+    @Query("select b.item.id as itemId, min(b.end) as bookingEnd from Booking b " +
+            "where b.item.id in :itemIds and b.start <= :now and b.end > :now group by b.item.id")
+    List<ItemBookingEnd> findCurrentBookingEnds(@Param("itemIds") Collection<Long> itemIds,
+                                                @Param("now") LocalDateTime now);
 
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -9,8 +10,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.exceptions.BookingNotFoundException;
+import ru.practicum.shareit.booking.exceptions.BookingOverlapException;
+import ru.practicum.shareit.booking.exceptions.BookingStatusConflictException;
 import ru.practicum.shareit.booking.exceptions.NotUpdatedStatusException;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.BookStatus;
@@ -21,6 +27,7 @@ import ru.practicum.shareit.item.exceptions.IllegalUserException;
 import ru.practicum.shareit.item.exceptions.ItemNotAvailableException;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemOwnerViewService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
@@ -28,35 +35,99 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Timed(value = "shareit.service", histogram = true)
 @Slf4j
 @RequiredArgsConstructor
 public class BookingService {
 
+    private static final List<BookStatus> ACTIVE_STATUSES = List.of(BookStatus.APPROVED, BookStatus.WAITING);
+    private static final int ITEM_IDS_CHUNK_SIZE = 1000;
+
     BookingRepository bookingRepo;
     ItemServiceImpl itemService;
     UserService userService;
     BookingMapper mapper;
+    ItemOwnerViewService ownerViewService;
 
     @Transactional
     public BookingResponseDto createBooking(Long userId, BookingCreationDto dto) {
         User booker = userService.getUser(userId);
-        Item item = itemService.getItem(dto.getItemId());
+        Item item = itemService.lockItem(dto.getItemId());
+        checkBookable(item, booker);
+        if (bookingRepo.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(item.getId(),
+                ACTIVE_STATUSES, dto.getEnd(), dto.getStart())) {
+            throw new BookingOverlapException(String.format("Вещь (%s) уже забронирована на период с %s по %s",
+                    item.getName(), dto.getStart(), dto.getEnd()));
+        }
+        Booking bookingForSave = mapper.creationBookingDtoToBooking(dto, item, booker);
+        Booking newBooking = bookingRepo.save(bookingForSave);
+        ownerViewService.bookingChanged(item.getId());
+        return mapper.bookingToBookingResponseDto(newBooking);
+    }
+
+    /**
+     * Создает все бронирования пакета или ни одного. Вещи блокируются в порядке id, пересечения проверяются
+     * по действующим бронированиям, загруженным заранее, и по бронированиям самого пакета.
+     */
+    @Transactional
+    public List<BookingResponseDto> createBookings(Long userId, List<BookingCreationDto> dtos) {
+        User booker = userService.getUser(userId);
+        List<Long> itemIds = dtos.stream()
+                .map(BookingCreationDto::getItemId)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        Map<Long, Item> items = new HashMap<>();
+        Map<Long, List<BookingPeriod>> periods = new HashMap<>();
+        for (int from = 0; from < itemIds.size(); from += ITEM_IDS_CHUNK_SIZE) {
+            List<Long> chunk = itemIds.subList(from, Math.min(itemIds.size(), from + ITEM_IDS_CHUNK_SIZE));
+            itemService.lockItems(chunk).forEach(item -> items.put(item.getId(), item));
+            for (BookingPeriod period : bookingRepo.findPeriodsByItemIds(chunk, ACTIVE_STATUSES)) {
+                periods.computeIfAbsent(period.getItemId(), id -> new ArrayList<>()).add(period);
+            }
+        }
+        List<Booking> bookings = new ArrayList<>(dtos.size());
+        for (BookingCreationDto dto : dtos) {
+            Item item = items.get(dto.getItemId());
+            if (item == null) {
+                throw new ItemNotFoundException(String.format("Вещи c id = %d не найдено", dto.getItemId()));
+            }
+            checkBookable(item, booker);
+            List<BookingPeriod> itemPeriods = periods.computeIfAbsent(item.getId(), id -> new ArrayList<>());
+            if (itemPeriods.stream().anyMatch(period -> period.overlaps(dto.getStart(), dto.getEnd()))) {
+                throw new BookingOverlapException(String.format("Вещь (%s) уже забронирована на период с %s по %s",
+                        item.getName(), dto.getStart(), dto.getEnd()));
+            }
+            itemPeriods.add(new BookingPeriod(item.getId(), dto.getStart(), dto.getEnd()));
+            bookings.add(mapper.creationBookingDtoToBooking(dto, item, booker));
+        }
+        List<Booking> created = bookingRepo.saveAll(bookings);
+        for (int from = 0; from < itemIds.size(); from += ITEM_IDS_CHUNK_SIZE) {
+            ownerViewService.bookingsChanged(itemIds.subList(from,
+                    Math.min(itemIds.size(), from + ITEM_IDS_CHUNK_SIZE)));
+        }
+        log.info("Пользователь id = {} создал {} бронирований", userId, created.size());
+        return created.stream()
+                .map(mapper::bookingToBookingResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    private void checkBookable(Item item, User booker) {
         if (!item.getAvailable()) {
             throw new ItemNotAvailableException(String.format("Вещь (%s) недоступна", item.getName()));
         }
         if (item.getOwner().equals(booker.getId())) {
             throw new ItemNotFoundException("Владелец не должен бронировать бронировать свою вещь");
         }
-        Booking bookingForSave = mapper.creationBookingDtoToBooking(dto, item, booker);
-        Booking newBooking = bookingRepo.save(bookingForSave);
-        return mapper.bookingToBookingResponseDto(newBooking);
     }
 
     @Transactional
@@ -71,14 +142,21 @@ public class BookingService {
         } else {
             setStatus(booking, BookStatus.REJECTED);
         }
-        Booking updated = bookingRepo.save(booking);
-        return mapper.bookingToBookingResponseDto(updated);
+        ownerViewService.bookingChanged(item.getId());
+        return mapper.bookingToBookingResponseDto(booking);
     }
 
     private void setStatus(Booking booking, BookStatus status) {
         if (booking.getStatus().equals(status)) {
             throw new NotUpdatedStatusException(String.format("Cтатус = %s, уже установлен", status.name()));
         }
+        // решение принимается один раз: статус меняется условным обновлением только из WAITING,
+        // поэтому из одновременных подтверждения и отклонения выигрывает ровно одно
+        if (booking.getStatus() != BookStatus.WAITING
+                || bookingRepo.updateStatus(booking.getId(), BookStatus.WAITING, status) == 0) {
+            throw new BookingStatusConflictException(String.format("Решение по бронированию с id = %d " +
+                    "уже принято", booking.getId()));
+        }
         booking.setStatus(status);
     }
 
@@ -90,6 +168,14 @@ public class BookingService {
         return booking.get();
     }
 
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> getBookingsByIds(Long userId, Collection<Long> bookingIds) {
+        userService.checkUserExists(userId);
+        return bookingRepo.findVisibleBookings(bookingIds, userId).stream()
+                .map(mapper::bookingViewToBookingResponseDto)
+                .collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public BookingResponseDto getBookingById(Long userId, Long bookingId) {
         Booking booking = getBooking(bookingId);
@@ -103,97 +189,132 @@ public class BookingService {
 
     @Transactional(readOnly = true)
     public List<BookingResponseDto> getBookingsByUser(Long userId, String state, int from, int size) {
-        List<Booking> bookings = new ArrayList<>();
-        List<BookStatus> statuses = new ArrayList<>();
         Pageable pageable = PageRequest.of(from / size, size);
-        userService.getUser(userId);
-        switch (State.valueOf(state)) {
-            case ALL:
-                statuses = Arrays.stream(BookStatus.values()).collect(Collectors.toList());
-                bookings = bookingRepo.findAllByBookerIdAndStatusInOrderByStartDesc(userId, statuses, pageable)
-                        .getContent();
-                break;
+        LocalDateTime now = LocalDateTime.now();
+        State bookingState = State.valueOf(state);
+        List<BookStatus> statuses = getStatuses(bookingState);
+        userService.checkUserExists(userId);
+        List<BookingView> bookings;
+        switch (bookingState) {
             case PAST:
-                statuses.add(BookStatus.APPROVED);
-                bookings = bookingRepo.findAllByBookerIdAndStatusInAndEndIsBeforeOrderByStartDesc(userId,
-                        statuses, LocalDateTime.now(), pageable)
-                        .getContent();
+                bookings = bookingRepo.findBookerPastBookings(userId, statuses, now, pageable);
                 break;
             case FUTURE:
-                statuses.add(BookStatus.APPROVED);
-                statuses.add(BookStatus.WAITING);
-                bookings = bookingRepo.findAllByBookerIdAndStatusInAndStartIsAfterOrderByStartDesc(userId,
-                        statuses, LocalDateTime.now(), pageable)
-                        .getContent();
+                bookings = bookingRepo.findBookerFutureBookings(userId, statuses, now, pageable);
                 break;
             case CURRENT:
-                statuses.add(BookStatus.APPROVED);
-                statuses.add(BookStatus.REJECTED);
-                bookings = bookingRepo.findAllByBookerIdAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-                        userId, statuses, LocalDateTime.now(), LocalDateTime.now(), pageable)
-                        .getContent();
-                break;
-            case WAITING:
-                statuses.add(BookStatus.WAITING);
-                bookings = bookingRepo.findAllByBookerIdAndStatusInOrderByStartDesc(userId, statuses, pageable)
-                        .getContent();
-                break;
-            case REJECTED:
-                statuses.add(BookStatus.REJECTED);
-                bookings = bookingRepo.findAllByBookerIdAndStatusInOrderByStartDesc(userId, statuses, pageable)
-                        .getContent();
+                bookings = bookingRepo.findBookerCurrentBookings(userId, statuses, now, pageable);
                 break;
+            default:
+                bookings = bookingRepo.findBookerBookings(userId, statuses, pageable);
         }
-        return  bookings.stream()
-                .map(mapper::bookingToBookingResponseDto)
+        return bookings.stream()
+                .map(mapper::bookingViewToBookingResponseDto)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<BookingResponseDto> getBookingsByOwner(Long userId, String state, int from, int size) {
-        List<Booking> bookings = new ArrayList<>();
-        List<BookStatus> statuses = new ArrayList<>();
         Pageable pageable = PageRequest.of(from / size, size);
-        userService.getUser(userId);
-        switch (State.valueOf(state)) {
-            case ALL:
-                statuses = Arrays.stream(BookStatus.values()).collect(Collectors.toList());
-                bookings = bookingRepo.findAllByItem_OwnerAndStatusInOrderByStartDesc(userId, statuses, pageable)
-                        .getContent();
+        LocalDateTime now = LocalDateTime.now();
+        State bookingState = State.valueOf(state);
+        List<BookStatus> statuses = getStatuses(bookingState);
+        userService.checkUserExists(userId);
+        List<BookingView> bookings;
+        switch (bookingState) {
+            case PAST:
+                bookings = bookingRepo.findOwnerPastBookings(userId, statuses, now, pageable);
+                break;
+            case FUTURE:
+                bookings = bookingRepo.findOwnerFutureBookings(userId, statuses, now, pageable);
+                break;
+            case CURRENT:
+                bookings = bookingRepo.findOwnerCurrentBookings(userId, statuses, now, pageable);
                 break;
+            default:
+                bookings = bookingRepo.findOwnerBookings(userId, statuses, pageable);
+        }
+        return bookings.stream()
+                .map(mapper::bookingViewToBookingResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> getBookingsByUserAfter(Long userId, String state, String cursor, int size) {
+        BookingCursor after = BookingCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, size);
+        LocalDateTime now = LocalDateTime.now();
+        State bookingState = State.valueOf(state);
+        List<BookStatus> statuses = getStatuses(bookingState);
+        userService.checkUserExists(userId);
+        List<BookingView> bookings;
+        switch (bookingState) {
             case PAST:
-                statuses.add(BookStatus.APPROVED);
-                bookings = bookingRepo.findAllByItem_OwnerAndStatusInAndEndIsBeforeOrderByStartDesc(userId,
-                        statuses, LocalDateTime.now(), pageable)
-                        .getContent();
+                bookings = bookingRepo.findBookerPastBookingsAfter(userId, statuses, now, after.getStart(),
+                        after.getId(), pageable);
                 break;
             case FUTURE:
-                statuses.add(BookStatus.APPROVED);
-                statuses.add(BookStatus.WAITING);
-                bookings = bookingRepo.findAllByItem_OwnerAndStatusInAndStartIsAfterOrderByStartDesc(userId,
-                        statuses, LocalDateTime.now(), pageable)
-                        .getContent();
+                bookings = bookingRepo.findBookerFutureBookingsAfter(userId, statuses, now, after.getStart(),
+                        after.getId(), pageable);
                 break;
             case CURRENT:
-                statuses.add(BookStatus.APPROVED);
-                statuses.add(BookStatus.REJECTED);
-                bookings = bookingRepo.findAllByItem_OwnerAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-                        userId, statuses, LocalDateTime.now(), LocalDateTime.now(), pageable)
-                        .getContent();
+                bookings = bookingRepo.findBookerCurrentBookingsAfter(userId, statuses, now, after.getStart(),
+                        after.getId(), pageable);
                 break;
-            case WAITING:
-                statuses.add(BookStatus.WAITING);
-                bookings = bookingRepo.findAllByItem_OwnerAndStatusInOrderByStartDesc(userId, statuses, pageable)
-                        .getContent();
+            default:
+                bookings = bookingRepo.findBookerBookingsAfter(userId, statuses, after.getStart(), after.getId(),
+                        pageable);
+        }
+        return bookings.stream()
+                .map(mapper::bookingViewToBookingResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> getBookingsByOwnerAfter(Long userId, String state, String cursor, int size) {
+        BookingCursor after = BookingCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, size);
+        LocalDateTime now = LocalDateTime.now();
+        State bookingState = State.valueOf(state);
+        List<BookStatus> statuses = getStatuses(bookingState);
+        userService.checkUserExists(userId);
+        List<BookingView> bookings;
+        switch (bookingState) {
+            case PAST:
+                bookings = bookingRepo.findOwnerPastBookingsAfter(userId, statuses, now, after.getStart(),
+                        after.getId(), pageable);
                 break;
-            case REJECTED:
-                statuses.add(BookStatus.REJECTED);
-                bookings = bookingRepo.findAllByItem_OwnerAndStatusInOrderByStartDesc(userId, statuses, pageable)
-                        .getContent();
+            case FUTURE:
+                bookings = bookingRepo.findOwnerFutureBookingsAfter(userId, statuses, now, after.getStart(),
+                        after.getId(), pageable);
                 break;
+            case CURRENT:
+                bookings = bookingRepo.findOwnerCurrentBookingsAfter(userId, statuses, now, after.getStart(),
+                        after.getId(), pageable);
+                break;
+            default:
+                bookings = bookingRepo.findOwnerBookingsAfter(userId, statuses, after.getStart(), after.getId(),
+                        pageable);
         }
-        return  bookings.stream()
-                .map(mapper::bookingToBookingResponseDto)
+        return bookings.stream()
+                .map(mapper::bookingViewToBookingResponseDto)
                 .collect(Collectors.toList());
     }
+
+    private List<BookStatus> getStatuses(State state) {
+        switch (state) {
+            case PAST:
+                return List.of(BookStatus.APPROVED);
+            case FUTURE:
+                return List.of(BookStatus.APPROVED, BookStatus.WAITING);
+            case CURRENT:
+                return List.of(BookStatus.APPROVED, BookStatus.REJECTED);
+            case WAITING:
+                return List.of(BookStatus.WAITING);
+            case REJECTED:
+                return List.of(BookStatus.REJECTED);
+            default:
+                return List.of(BookStatus.values());
+        }
+    }
 }
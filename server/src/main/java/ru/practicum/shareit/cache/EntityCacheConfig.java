@@ -0,0 +1,58 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Кэш второго уровня Hibernate на JCache-реализации Caffeine. Регионы создаются заранее по
+ * {@link EntityCacheProperties}, а Hibernate настроен не создавать недостающие, поэтому регион
+ * без настроек не пройдет незамеченным. Метрики попаданий по регионам публикует Spring Boot
+ * из статистики Hibernate ({@code hibernate.second.level.cache.requests}).
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(EntityCacheProperties.class)
+public class EntityCacheConfig {
+
+    @Bean
+    public CacheManager entityCacheManager(EntityCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        for (Map.Entry<String, EntityCacheProperties.Region> region : properties.getRegions().entrySet()) {
+            // менеджер общий для JVM, в тестах его регионы уже могли создать другие контексты
+            if (cacheManager.getCache(region.getKey()) == null) {
+                cacheManager.createCache(region.getKey(), toConfiguration(region.getValue()));
+                log.info("Создан регион кэша второго уровня {}: не больше {} записей, время жизни {}",
+                        region.getKey(), region.getValue().getMaximumSize(), region.getValue().getExpireAfterWrite());
+            }
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> toConfiguration(EntityCacheProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+        if (region.getExpireAfterWrite() != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+        }
+        return configuration;
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.cache;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Размеры и время жизни регионов кэша второго уровня Hibernate. Регион без {@code expireAfterWrite}
+ * не устаревает по времени, так настраивается регион отметок обновления таблиц.
+ */
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties(prefix = "shareit.cache.entity")
+public class EntityCacheProperties {
+    Map<String, Region> regions = new HashMap<>();
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Region {
+        long maximumSize = 10_000;
+        Duration expireAfterWrite;
+    }
+}
@@ -8,11 +8,19 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.practicum.shareit.booking.exceptions.BookingNotFoundException;
+import ru.practicum.shareit.booking.exceptions.BookingOverlapException;
+import ru.practicum.shareit.booking.exceptions.BookingStatusConflictException;
+import ru.practicum.shareit.booking.exceptions.IncorrectCursorException;
 import ru.practicum.shareit.booking.exceptions.NotUpdatedStatusException;
 import ru.practicum.shareit.item.exceptions.IllegalUserException;
 import ru.practicum.shareit.item.exceptions.ItemNotAvailableException;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.request.exceptions.ItemRequestNotFound;
+import ru.practicum.shareit.request.exceptions.ItemRequestStreamException;
+import ru.practicum.shareit.transfer.exceptions.IncorrectTransferException;
+import ru.practicum.shareit.transfer.exceptions.TransferAccessDeniedException;
+import ru.practicum.shareit.transfer.exceptions.TransferJobNotFoundException;
+import ru.practicum.shareit.transfer.exceptions.TransferTooLargeException;
 import ru.practicum.shareit.user.exceptions.ExistingEmailException;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 
@@ -91,15 +99,66 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleBookingOverlap(final BookingOverlapException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleBookingStatusConflict(final BookingStatusConflictException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleNotUpdatedStatus(final NotUpdatedStatusException e) {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleIncorrectCursor(final IncorrectCursorException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleRequestNotFound(final ItemRequestNotFound e) {
         return new ErrorResponse(e.getMessage());
     }
+
+    /**
+     * Статус и начало тела уже отправлены, поэтому ответ об ошибке не пишется: исключение уходит в контейнер,
+     * который обрывает соединение, и клиент не принимает усеченный массив за полный ответ.
+     */
+    @ExceptionHandler
+    public void handleItemRequestStream(final ItemRequestStreamException e) {
+        throw e;
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorResponse handleTransferJobNotFound(final TransferJobNotFoundException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleIncorrectTransfer(final IncorrectTransferException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.FORBIDDEN)
+    public ErrorResponse handleTransferAccessDenied(final TransferAccessDeniedException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+    public ErrorResponse handleTransferTooLarge(final TransferTooLargeException e) {
+        return new ErrorResponse(e.getMessage());
+    }
 }
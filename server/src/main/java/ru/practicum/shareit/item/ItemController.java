@@ -21,6 +21,7 @@ public class ItemController {
     private static final  String ID_PATH = "/{itemId}";
     private static final  String SEARCH_PATH = "/search";
     private static final  String COMMENT_PATH = "/comment";
+    private static final  String BULK_PATH = "/bulk";
     private static final String USER_HEADER = "X-Sharer-User-Id";
 
     ItemService service;
@@ -31,6 +32,11 @@ public class ItemController {
         return service.getAllByUserId(userId, from, size);
     }
 
+    @GetMapping(params = "ids")
+    public List<ItemResponseForOwner> getByIds(@RequestParam List<Long> ids, @RequestHeader(USER_HEADER) long userId) {
+        return service.getByIds(ids, userId);
+    }
+
     @GetMapping(ID_PATH)
     public ItemResponseForOwner getById(@PathVariable long itemId, @RequestHeader(USER_HEADER) long userId) {
         return service.getById(itemId, userId);
@@ -47,6 +53,12 @@ public class ItemController {
         return service.createItem(dto, userId);
     }
 
+    @PostMapping(BULK_PATH)
+    public List<ItemResponseDto> createAll(@RequestBody List<ItemCreateDto> dtos,
+                                           @RequestHeader(USER_HEADER) long userId) {
+        return service.createItems(dtos, userId);
+    }
+
     @PatchMapping(ID_PATH)
     public ItemResponseDto update(@RequestBody ItemUpdateDto dto, @RequestHeader(USER_HEADER) long userId,
                                   @PathVariable long itemId) {
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ItemOwnerViewConfig {
+
+    /**
+     * Потоки пересчета устаревших записей витрины владельца. Очередь ограничена: задачи сверх нее отбрасываются,
+     * а записи пересчитываются по следующему чтению.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ownerViewExecutor(@Value("${shareit.owner-view.refresh-threads}") int threads,
+                                                    @Value("${shareit.owner-view.refresh-queue-capacity}")
+                                                    int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("owner-view-");
+        return executor;
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemOwnerView;
+
+/**
+ * Строка списка вещей владельца: вещь и ее запись в витрине, выбранные одним запросом.
+ * Записи нет, если вещь добавлена в обход сервиса.
+ */
+public interface ItemOwnerRow {
+    Item getItem();
+
+    ItemOwnerView getView();
+}
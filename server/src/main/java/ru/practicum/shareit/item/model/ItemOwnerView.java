@@ -0,0 +1,141 @@
+package ru.practicum.shareit.item.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Persistable;
+import ru.practicum.shareit.booking.dto.BookingInfoInItem;
+import ru.practicum.shareit.item.dto.CommentResponseDto;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запись витрины владельца: отзывы, последнее и следующее бронирование вещи, посчитанные заранее.
+ * Запись действительна до {@code refreshAt}, когда следующее бронирование начнется или текущее закончится;
+ * {@code null} означает, что без новых бронирований запись не устареет.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Getter
+@Setter
+@ToString
+@Entity
+@Table(name = "item_owner_view", schema = "public")
+public class ItemOwnerView implements Persistable<Long> {
+    @Id
+    @Column(name = "item_id")
+    Long itemId;
+
+    @Convert(converter = CommentsConverter.class)
+    @Column(name = "comments", nullable = false)
+    List<CommentResponseDto> comments;
+
+    @Convert(converter = BookingConverter.class)
+    @Column(name = "last_booking")
+    BookingInfoInItem lastBooking;
+
+    @Convert(converter = BookingConverter.class)
+    @Column(name = "next_booking")
+    BookingInfoInItem nextBooking;
+
+    @Column(name = "refresh_at")
+    LocalDateTime refreshAt;
+
+    @Transient
+    boolean created;
+
+    public static ItemOwnerView create(Long itemId) {
+        ItemOwnerView view = new ItemOwnerView();
+        view.setItemId(itemId);
+        view.setComments(new ArrayList<>());
+        view.created = true;
+        return view;
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return refreshAt != null && !refreshAt.isAfter(now);
+    }
+
+    @Override
+    public Long getId() {
+        return itemId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return created;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        created = false;
+    }
+
+    /**
+     * Конвертеры создает Hibernate через контейнер бинов Spring, поэтому JSON пишется тем же
+     * {@link ObjectMapper}, что и ответы сервера.
+     */
+    abstract static class JsonConverter<T> implements AttributeConverter<T, String> {
+        private final ObjectMapper mapper;
+        private final TypeReference<T> type;
+
+        JsonConverter(ObjectMapper mapper, TypeReference<T> type) {
+            this.mapper = mapper;
+            this.type = type;
+        }
+
+        @Override
+        public String convertToDatabaseColumn(T attribute) {
+            if (attribute == null) {
+                return null;
+            }
+            try {
+                return mapper.writeValueAsString(attribute);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Не удалось записать витрину владельца", e);
+            }
+        }
+
+        @Override
+        public T convertToEntityAttribute(String column) {
+            if (column == null) {
+                return null;
+            }
+            try {
+                return mapper.readValue(column, type);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Не удалось прочитать витрину владельца", e);
+            }
+        }
+    }
+
+    static class CommentsConverter extends JsonConverter<List<CommentResponseDto>> {
+        CommentsConverter(ObjectMapper mapper) {
+            super(mapper, new TypeReference<>() {
+            });
+        }
+    }
+
+    static class BookingConverter extends JsonConverter<BookingInfoInItem> {
+        BookingConverter(ObjectMapper mapper) {
+            super(mapper, new TypeReference<>() {
+            });
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    @EntityGraph(Comment.WITH_AUTHOR)
     List<Comment> findAllByItem_Id(Long itemId);
 
+    @EntityGraph(Comment.WITH_AUTHOR)
+    @Query("select c from Comment c where c.item.id in :itemIds")
+    List<Comment> findAllByItemIds(@Param("itemIds") Collection<Long> itemIds);
+
 }
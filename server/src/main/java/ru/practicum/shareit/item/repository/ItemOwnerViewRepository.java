@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.model.ItemOwnerView;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemOwnerViewRepository extends JpaRepository<ItemOwnerView, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v from ItemOwnerView v where v.itemId in :itemIds order by v.itemId")
+    List<ItemOwnerView> findAllByIdForUpdate(@Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Создает устаревшие записи для вещей, добавленных в обход сервиса, например загрузкой таблицы.
+     */
+    @Modifying
+    @Query(value = "insert into item_owner_view (item_id, comments, refresh_at) " +
+            "select i.id, '[]', timestamp '1970-01-01 00:00:00' from items i " +
+            "where not exists (select 1 from item_owner_view v where v.item_id = i.id)", nativeQuery = true)
+    int createMissing();
+
+    @Modifying
+    @Query("update ItemOwnerView v set v.refreshAt = :now")
+    int expireAll(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update ItemOwnerView v set v.refreshAt = :now where v.itemId in :itemIds")
+    int expireByItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update ItemOwnerView v set v.refreshAt = :now where v.itemId in " +
+            "(select c.item.id from Comment c where c.author.id = :authorId)")
+    int expireByCommentAuthor(@Param("authorId") long authorId, @Param("now") LocalDateTime now);
+}
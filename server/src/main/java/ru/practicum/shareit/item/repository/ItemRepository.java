@@ -1,17 +1,52 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemOwnerRow;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    Page<Item> findAllByOwner(long owner, Pageable pageable);
+    @Query("select i as item, v as view from Item i left join ItemOwnerView v on v.itemId = i.id " +
+            "where i.owner = :owner order by i.id")
+    List<ItemOwnerRow> findAllWithOwnerView(@Param("owner") long owner, Pageable pageable);
 
-    Page<Item> findByDescriptionContainingIgnoreCaseOrNameContainingIgnoreCase(String str, String st, Pageable page);
+    /**
+     * Поиск подстроки без учета регистра. {@code %} и {@code _} в тексте экранируются и ищутся как символы.
+     * На PostgreSQL условия {@code upper(...) like} идут по триграммным индексам из миграции V6.
+     */
+    @Query("select i from Item i where i.available = true " +
+            "and (upper(i.name) like upper(concat('%', :#{escape(#text)}, '%')) escape :#{escapeCharacter()} " +
+            "or upper(i.description) like upper(concat('%', :#{escape(#text)}, '%')) escape :#{escapeCharacter()}) " +
+            "order by case when upper(i.name) like upper(concat('%', :#{escape(#text)}, '%')) " +
+            "escape :#{escapeCharacter()} then 0 else 1 end, i.id")
+    List<Item> searchAvailable(@Param("text") String text, Pageable pageable);
 
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = "items-by-request")})
     List<Item> findAllByRequest(ItemRequest request);
+
+    @Query("select i from Item i where i.request.id in :requestIds")
+    List<Item> findAllByRequestIds(@Param("requestIds") Collection<Long> requestIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :itemId")
+    Optional<Item> findByIdForUpdate(@Param("itemId") long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in :itemIds order by i.id")
+    List<Item> findAllByIdForUpdate(@Param("itemIds") Collection<Long> itemIds);
 }
@@ -0,0 +1,258 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingInfoInItem;
+import ru.practicum.shareit.booking.dto.ItemBookingEnd;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemOwnerRow;
+import ru.practicum.shareit.item.dto.ItemResponseForOwner;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.ItemOwnerView;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemOwnerViewRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Витрина вещей владельца. Записи обновляются при создании вещи, отзыва и бронирования и при смене
+ * статуса бронирования, а по времени устаревают, когда истекает {@code refreshAt}.
+ * Чтение ничего не пишет и не блокирует: устаревшие записи и записи вещей, добавленных в обход сервиса,
+ * считаются для ответа заново, а сохраненные устаревшие записи пересчитываются в фоне после завершения
+ * транзакции чтения или изменения, пометившего их устаревшими.
+ * Методы изменения вызываются внутри транзакций сервисов вещей, бронирований и пользователей.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Timed(value = "shareit.service", histogram = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ItemOwnerViewService {
+
+    ItemRepository itemRepository;
+    ItemOwnerViewRepository viewRepository;
+    CommentRepository commentsRepository;
+    BookingRepository bookingRepository;
+    ItemMapper mapper;
+    CommentMapper commentMapper;
+    BookingMapper bookingMapper;
+    TaskExecutor ownerViewExecutor;
+    TransactionOperations transactionOperations;
+    Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+
+    public List<ItemResponseForOwner> getByOwner(long ownerId, int from, int size) {
+        List<ItemOwnerRow> rows = itemRepository.findAllWithOwnerView(ownerId, PageRequest.of(from / size, size));
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemOwnerRow> expired = rows.stream()
+                .filter(row -> row.getView() == null || row.getView().isExpired(now))
+                .collect(Collectors.toList());
+        Map<Long, ItemOwnerView> refreshed = expired.isEmpty() ? Map.of() : build(expired);
+        refreshLater(expired.stream()
+                .filter(row -> row.getView() != null)
+                .map(row -> row.getItem().getId())
+                .collect(Collectors.toList()));
+        return rows.stream()
+                .map(row -> {
+                    ItemOwnerView view = refreshed.getOrDefault(row.getItem().getId(), row.getView());
+                    ItemResponseForOwner item = mapper.itemToItemResponseForOwner(row.getItem());
+                    item.setComments(view.getComments());
+                    item.setLastBooking(view.getLastBooking());
+                    item.setNextBooking(view.getNextBooking());
+                    return item;
+                })
+                .collect(Collectors.toList());
+    }
+
+    public void itemCreated(long itemId) {
+        viewRepository.save(ItemOwnerView.create(itemId));
+    }
+
+    public void itemsCreated(Collection<Long> itemIds) {
+        viewRepository.saveAll(itemIds.stream()
+                .map(ItemOwnerView::create)
+                .collect(Collectors.toList()));
+    }
+
+    public void commentCreated(long itemId, CommentResponseDto comment) {
+        for (ItemOwnerView view : viewRepository.findAllByIdForUpdate(List.of(itemId))) {
+            List<CommentResponseDto> comments = new ArrayList<>(view.getComments());
+            comments.add(comment);
+            view.setComments(comments);
+            viewRepository.save(view);
+        }
+    }
+
+    public void bookingChanged(long itemId) {
+        List<ItemOwnerView> views = viewRepository.findAllByIdForUpdate(List.of(itemId));
+        if (!views.isEmpty()) {
+            refreshBookings(views, LocalDateTime.now());
+            viewRepository.saveAll(views);
+        }
+    }
+
+    /**
+     * Помечает записи устаревшими без пересчета: после пакетного создания бронирований записи пересчитываются
+     * в фоне после коммита одним пакетом, а не по одной на каждую вещь пакета.
+     */
+    public void bookingsChanged(Collection<Long> itemIds) {
+        int expired = viewRepository.expireByItemIds(itemIds, LocalDateTime.now());
+        log.debug("Бронирования вещей изменены пакетом, устаревших записей витрины: {}", expired);
+        refreshLater(itemIds);
+    }
+
+    public void itemsImported() {
+        int created = viewRepository.createMissing();
+        log.debug("Созданы записи витрины владельца для загруженных вещей: {}", created);
+    }
+
+    public void allExpired() {
+        int expired = viewRepository.expireAll(LocalDateTime.now());
+        log.debug("Все записи витрины владельца помечены устаревшими: {}", expired);
+    }
+
+    public void authorRenamed(long authorId) {
+        int expired = viewRepository.expireByCommentAuthor(authorId, LocalDateTime.now());
+        log.debug("Имя автора отзывов (id = {}) изменено, устаревших записей витрины: {}", authorId, expired);
+    }
+
+    /**
+     * Пересчитывает записи для ответа, не сохраняя их.
+     */
+    private Map<Long, ItemOwnerView> build(List<ItemOwnerRow> rows) {
+        Map<Long, ItemOwnerView> views = rows.stream()
+                .map(row -> ItemOwnerView.create(row.getItem().getId()))
+                .collect(Collectors.toMap(ItemOwnerView::getItemId, Function.identity()));
+        fill(views.values());
+        return views;
+    }
+
+    /**
+     * Ставит пересчет сохраненных записей в очередь после завершения текущей транзакции. Записи, пересчет которых
+     * уже ждет в очереди, повторно не ставятся.
+     */
+    private void refreshLater(Collection<Long> itemIds) {
+        List<Long> itemIdsToRefresh = itemIds.stream()
+                .filter(scheduled::add)
+                .collect(Collectors.toList());
+        if (itemIdsToRefresh.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(itemIdsToRefresh);
+            return;
+        }
+        // пересчет должен видеть изменения, пометившие записи устаревшими, поэтому ставится в очередь после коммита
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    submit(itemIdsToRefresh);
+                } else {
+                    scheduled.removeAll(itemIdsToRefresh);
+                }
+            }
+        });
+    }
+
+    private void submit(List<Long> itemIds) {
+        try {
+            ownerViewExecutor.execute(() -> {
+                // изменения после начала пересчета должны снова поставить записи в очередь
+                scheduled.removeAll(itemIds);
+                try {
+                    transactionOperations.executeWithoutResult(status -> refresh(itemIds));
+                } catch (RuntimeException e) {
+                    log.warn("Не удалось пересчитать записи витрины владельца для вещей {}", itemIds, e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            scheduled.removeAll(itemIds);
+            log.debug("Очередь пересчета витрины владельца заполнена, записи вещей {} пересчитаются позже", itemIds);
+        }
+    }
+
+    private void refresh(List<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemOwnerView> views = viewRepository.findAllByIdForUpdate(itemIds).stream()
+                .filter(view -> view.isExpired(now))
+                .collect(Collectors.toList());
+        if (views.isEmpty()) {
+            return;
+        }
+        fill(views);
+        viewRepository.saveAll(views);
+        log.debug("Пересчитаны записи витрины владельца для вещей {}", itemIds);
+    }
+
+    private void fill(Collection<ItemOwnerView> views) {
+        List<Long> itemIds = views.stream()
+                .map(ItemOwnerView::getItemId)
+                .collect(Collectors.toList());
+        Map<Long, List<CommentResponseDto>> comments = commentsRepository.findAllByItemIds(itemIds).stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId(),
+                        Collectors.mapping(commentMapper::commentToCommentResponse, Collectors.toList())));
+        views.forEach(view -> view.setComments(comments.getOrDefault(view.getItemId(), new ArrayList<>())));
+        refreshBookings(views, LocalDateTime.now());
+    }
+
+    private void refreshBookings(Collection<ItemOwnerView> views, LocalDateTime now) {
+        List<Long> itemIds = views.stream()
+                .map(ItemOwnerView::getItemId)
+                .collect(Collectors.toList());
+        Map<Long, BookingInfoInItem> lastBookings =
+                getBookingsByItem(bookingRepository.findLastBookingsByItemIds(itemIds, now));
+        Map<Long, BookingInfoInItem> nextBookings =
+                getBookingsByItem(bookingRepository.findNextBookingsByItemIds(itemIds, now));
+        Map<Long, LocalDateTime> currentEnds = bookingRepository.findCurrentBookingEnds(itemIds, now).stream()
+                .collect(Collectors.toMap(ItemBookingEnd::getItemId, ItemBookingEnd::getBookingEnd));
+        for (ItemOwnerView view : views) {
+            BookingInfoInItem next = nextBookings.get(view.getItemId());
+            LocalDateTime currentEnd = currentEnds.get(view.getItemId());
+            view.setLastBooking(lastBookings.get(view.getItemId()));
+            view.setNextBooking(next);
+            view.setRefreshAt(earliest(next == null ? null : next.getStart(), currentEnd));
+        }
+    }
+
+    private static LocalDateTime earliest(LocalDateTime first, LocalDateTime second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return first.isBefore(second) ? first : second;
+    }
+
+    private Map<Long, BookingInfoInItem> getBookingsByItem(List<Booking> bookings) {
+        Map<Long, BookingInfoInItem> result = new HashMap<>();
+        for (Booking booking : bookings) {
+            result.putIfAbsent(booking.getItem().getId(), bookingMapper.bookingToBookingInfoInItem(booking));
+        }
+        return result;
+    }
+}
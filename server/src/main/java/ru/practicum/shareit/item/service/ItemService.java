@@ -7,6 +7,7 @@ import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemService {
@@ -14,10 +15,14 @@ public interface ItemService {
 
     ItemResponseForOwner getById(long itemId, long userId);
 
+    List<ItemResponseForOwner> getByIds(Collection<Long> itemIds, long userId);
+
     List<ItemResponseDto> getByNameOrDescription(String str, long userId, int from, int size);
 
     ItemResponseDto createItem(ItemCreateDto dto, long userId);
 
+    List<ItemResponseDto> createItems(List<ItemCreateDto> dtos, long userId);
+
     ItemResponseDto updateItem(ItemUpdateDto dto, long userId, long itemId);
 
     void deleteItem(long id, long userId);
@@ -1,13 +1,12 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingInfoInItem;
@@ -33,11 +32,16 @@ import ru.practicum.shareit.user.service.UserService;
 import javax.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Timed(value = "shareit.service", histogram = true)
 @AllArgsConstructor
 @Slf4j
 public class ItemServiceImpl implements ItemService {
@@ -50,23 +54,73 @@ public class ItemServiceImpl implements ItemService {
     CommentMapper commentMapper;
     BookingMapper bookingMapper;
     ItemRequestService itemRequestService;
-
+    ItemOwnerViewService ownerViewService;
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemResponseForOwner> getAllByUserId(long userId, int from, int size) {
-        userService.getById(userId);
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.ASC, "id"));
-        Page<Item> itemsPage = repository.findAllByOwner(userId, pageable);
-        List<ItemResponseForOwner> items = itemsPage.getContent().stream()
+        List<ItemResponseForOwner> items = ownerViewService.getByOwner(userId, from, size);
+        if (items.isEmpty()) {
+            // вещи ссылаются на владельца, поэтому проверять пользователя нужно только для пустой страницы
+            userService.checkUserExists(userId);
+        }
+        return items;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemResponseForOwner> getByIds(Collection<Long> itemIds, long userId) {
+        userService.checkUserExists(userId);
+        List<Item> found = repository.findAllById(itemIds).stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .collect(Collectors.toList());
+        List<ItemResponseForOwner> items = found.stream()
                 .map(mapper::itemToItemResponseForOwner)
                 .collect(Collectors.toList());
-        items.forEach(i -> i.setComments(getComments(i.getId())));
-        items.forEach(i -> i.setLastBooking(getLastBooking(i.getId())));
-        items.forEach(i -> i.setNextBooking(getNextBooking(i.getId())));
+        List<Long> ownedItemIds = found.stream()
+                .filter(item -> item.getOwner() == userId)
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        setCommentsAndBookings(items, ownedItemIds);
         return items;
     }
 
+    private void setCommentsAndBookings(List<ItemResponseForOwner> items, List<Long> ownedItemIds) {
+        if (items.isEmpty()) {
+            return;
+        }
+        List<Long> itemIds = items.stream()
+                .map(ItemResponseForOwner::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<CommentResponseDto>> comments = getCommentsByItem(itemIds);
+        Map<Long, BookingInfoInItem> lastBookings = new HashMap<>();
+        Map<Long, BookingInfoInItem> nextBookings = new HashMap<>();
+        if (!ownedItemIds.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            lastBookings = getBookingsByItem(bookingRepository.findLastBookingsByItemIds(ownedItemIds, now));
+            nextBookings = getBookingsByItem(bookingRepository.findNextBookingsByItemIds(ownedItemIds, now));
+        }
+        for (ItemResponseForOwner item : items) {
+            item.setComments(comments.getOrDefault(item.getId(), new ArrayList<>()));
+            item.setLastBooking(lastBookings.get(item.getId()));
+            item.setNextBooking(nextBookings.get(item.getId()));
+        }
+    }
+
+    private Map<Long, List<CommentResponseDto>> getCommentsByItem(List<Long> itemIds) {
+        return commentsRepository.findAllByItemIds(itemIds).stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId(),
+                        Collectors.mapping(commentMapper::commentToCommentResponse, Collectors.toList())));
+    }
+
+    private Map<Long, BookingInfoInItem> getBookingsByItem(List<Booking> bookings) {
+        Map<Long, BookingInfoInItem> result = new HashMap<>();
+        for (Booking booking : bookings) {
+            result.putIfAbsent(booking.getItem().getId(), bookingMapper.bookingToBookingInfoInItem(booking));
+        }
+        return result;
+    }
+
     private List<CommentResponseDto> getComments(Long itemId) {
         return commentsRepository.findAllByItem_Id(itemId).stream()
                 .map(commentMapper::commentToCommentResponse)
@@ -74,7 +128,7 @@ public class ItemServiceImpl implements ItemService {
     }
 
     private BookingInfoInItem getLastBooking(Long itemId) {
-        Booking dto = bookingRepository.findFirstByItemIdAndEndBeforeOrderByEndDesc(itemId, LocalDateTime.now());
+        Booking dto = bookingRepository.findFirstByItemIdAndEndBeforeOrderByEndDescIdAsc(itemId, LocalDateTime.now());
         if (dto == null) {
             return null;
         }
@@ -82,7 +136,7 @@ public class ItemServiceImpl implements ItemService {
     }
 
     private BookingInfoInItem getNextBooking(Long itemId) {
-        Booking dto = bookingRepository.findFirstByItemIdAndStartAfterOrderByStart(itemId, LocalDateTime.now());
+        Booking dto = bookingRepository.findFirstByItemIdAndStartAfterOrderByStartAscIdAsc(itemId, LocalDateTime.now());
         if (dto == null) {
             return null;
         }
@@ -92,7 +146,7 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional(readOnly = true)
     public ItemResponseForOwner getById(long itemId, long userId) {
-        userService.getById(userId);
+        userService.checkUserExists(userId);
         Item item = getItem(itemId);
         ItemResponseForOwner response = mapper.itemToItemResponseForOwner(item);
         response.setComments(getComments(itemId));
@@ -106,25 +160,29 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional(readOnly = true)
     public List<ItemResponseDto> getByNameOrDescription(String str, long userId, int from, int size) {
-        userService.getById(userId);
+        userService.checkUserExists(userId);
         List<Item> items = new ArrayList<>();
         Pageable page = PageRequest.of(from / size, size);
-        if (!str.isBlank() && !str.isEmpty()) {
-            items = repository.findByDescriptionContainingIgnoreCaseOrNameContainingIgnoreCase(str, str, page)
-                    .getContent();
+        if (!str.isBlank()) {
+            items = repository.searchAvailable(str, page);
         }
         List<ItemResponseDto> response = items.stream()
-                .filter(Item::getAvailable)
                 .map(mapper::itemToItemResponseDto)
                 .collect(Collectors.toList());
-        response.forEach(i -> i.setComments(getComments(i.getId())));
+        if (response.isEmpty()) {
+            return response;
+        }
+        Map<Long, List<CommentResponseDto>> comments = getCommentsByItem(response.stream()
+                .map(ItemResponseDto::getId)
+                .collect(Collectors.toList()));
+        response.forEach(i -> i.setComments(comments.getOrDefault(i.getId(), new ArrayList<>())));
         return response;
     }
 
     @Override
     @Transactional
     public ItemResponseDto createItem(ItemCreateDto dto, long userId) {
-        userService.getById(userId);
+        userService.checkUserExists(userId);
         Item item = mapper.itemCreateDtoToItem(dto);
         item.setOwner(userId);
         ItemRequest request = null;
@@ -134,13 +192,38 @@ public class ItemServiceImpl implements ItemService {
         }
         item.setRequest(request);
         Item created = repository.save(item);
+        ownerViewService.itemCreated(created.getId());
         return mapper.itemToItemResponseDto(created);
     }
 
+    @Override
+    @Transactional
+    public List<ItemResponseDto> createItems(List<ItemCreateDto> dtos, long userId) {
+        userService.checkUserExists(userId);
+        Map<Long, ItemRequest> requests = new HashMap<>();
+        List<Item> items = new ArrayList<>(dtos.size());
+        for (ItemCreateDto dto : dtos) {
+            Item item = mapper.itemCreateDtoToItem(dto);
+            item.setOwner(userId);
+            if (dto.getRequestId() != null) {
+                item.setRequest(requests.computeIfAbsent(dto.getRequestId(), itemRequestService::getRequestById));
+            }
+            items.add(item);
+        }
+        List<Item> created = repository.saveAll(items);
+        ownerViewService.itemsCreated(created.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList()));
+        log.info("Пользователь id = {} добавил {} вещей", userId, created.size());
+        return created.stream()
+                .map(mapper::itemToItemResponseDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional
     public ItemResponseDto updateItem(ItemUpdateDto dto, long userId, long itemId) {
-        userService.getById(userId);
+        userService.checkUserExists(userId);
         Item item = getItem(itemId);
         Item updated;
         if (userId == item.getOwner()) {
@@ -177,10 +260,19 @@ public class ItemServiceImpl implements ItemService {
         return item;
     }
 
+    public Item lockItem(long itemId) {
+        return repository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new ItemNotFoundException(String.format("Вещи c id = %d не найдено", itemId)));
+    }
+
+    public List<Item> lockItems(Collection<Long> itemIds) {
+        return repository.findAllByIdForUpdate(itemIds);
+    }
+
     @Override
     @Transactional
     public void deleteItem(long id, long userId) {
-        userService.getById(userId);
+        userService.checkUserExists(userId);
         Item item = getItem(id);
         if (userId == item.getOwner()) {
             repository.deleteById(id);
@@ -203,6 +295,8 @@ public class ItemServiceImpl implements ItemService {
         }
         Comment comment = commentMapper.commentCreateDtoToComment(dto, author, item, LocalDateTime.now());
         Comment created = commentsRepository.save(comment);
-        return commentMapper.commentToCommentResponse(created);
+        CommentResponseDto response = commentMapper.commentToCommentResponse(created);
+        ownerViewService.commentCreated(itemId, response);
+        return response;
     }
 }
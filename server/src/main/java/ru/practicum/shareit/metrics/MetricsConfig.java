@@ -0,0 +1,38 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Метрики сервера: таймеры методов сервисов, помеченных {@code @Timed}, и число SQL-запросов
+ * на HTTP-запрос, в диагностическом режиме ({@code shareit.metrics.diagnostics}) возвращаемое
+ * и в заголовке ответа. Таймеры вызовов репозиториев Spring Boot публикует сам
+ * ({@code spring.data.repository.invocations}).
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCountingInspector());
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryMetricsFilter> queryMetricsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${shareit.metrics.n-plus-one-threshold}") int nPlusOneThreshold,
+            @Value("${shareit.metrics.diagnostics}") boolean diagnostics) {
+        return new FilterRegistrationBean<>(new QueryMetricsFilter(meterRegistry, nPlusOneThreshold, diagnostics));
+    }
+}
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.metrics;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Ставит заголовок {@value QueryMetricsFilter#QUERY_COUNT_HEADER} непосредственно перед первым байтом тела
+ * ответа, не буферизуя тело: ответ отправляется так же, как без обертки, а в заголовок попадают запросы,
+ * выполненные до начала записи тела.
+ */
+class QueryCountResponseWrapper extends HttpServletResponseWrapper {
+
+    private final QueryCounter counter;
+    private boolean headerWritten;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    QueryCountResponseWrapper(HttpServletResponse response, QueryCounter counter) {
+        super(response);
+        this.counter = counter;
+    }
+
+    /**
+     * Ставит заголовок, если тело еще не начато и ответ не отправлен.
+     */
+    void writeHeader() {
+        if (!headerWritten && !isCommitted()) {
+            setHeader(QueryMetricsFilter.QUERY_COUNT_HEADER, String.valueOf(counter.getTotal()));
+        }
+        headerWritten = true;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new HeaderWritingOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new HeaderWritingWriter(super.getWriter()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        writeHeader();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        writeHeader();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        writeHeader();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        writeHeader();
+        super.sendRedirect(location);
+    }
+
+    private class HeaderWritingOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+
+        HeaderWritingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            writeHeader();
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            writeHeader();
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writeHeader();
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writeHeader();
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+
+    private class HeaderWritingWriter extends FilterWriter {
+
+        HeaderWritingWriter(PrintWriter delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            writeHeader();
+            super.write(c);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            writeHeader();
+            super.write(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            writeHeader();
+            super.write(str, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writeHeader();
+            super.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writeHeader();
+            super.close();
+        }
+    }
+}
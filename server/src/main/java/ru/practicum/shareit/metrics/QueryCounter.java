@@ -0,0 +1,56 @@
+package ru.practicum.shareit.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Счетчик SQL-запросов текущего потока. Запросы считаются только внутри открытой области
+ * ({@link #open()}), вне ее вызовы {@link #statementPrepared(String)} игнорируются.
+ */
+public final class QueryCounter implements AutoCloseable {
+
+    private static final ThreadLocal<QueryCounter> CURRENT = new ThreadLocal<>();
+
+    private final QueryCounter parent;
+    private final Map<String, Integer> statements = new HashMap<>();
+    private int total;
+
+    private QueryCounter(QueryCounter parent) {
+        this.parent = parent;
+    }
+
+    public static QueryCounter open() {
+        QueryCounter counter = new QueryCounter(CURRENT.get());
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    static void statementPrepared(String sql) {
+        for (QueryCounter counter = CURRENT.get(); counter != null; counter = counter.parent) {
+            counter.total++;
+            counter.statements.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Число выполнений каждого запроса; запросы с разными параметрами совпадают, так как
+     * Hibernate передает текст с плейсхолдерами.
+     */
+    public Map<String, Integer> getStatements() {
+        return Collections.unmodifiableMap(statements);
+    }
+
+    @Override
+    public void close() {
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+}
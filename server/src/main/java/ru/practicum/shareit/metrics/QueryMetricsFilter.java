@@ -0,0 +1,96 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Считает SQL-запросы, выполненные при обработке HTTP-запроса, и публикует их число
+ * в гистограмме {@code shareit.http.server.queries}. Если один и тот же запрос выполнен
+ * не меньше {@code nPlusOneThreshold} раз, обработка помечается как N+1 в счетчике
+ * {@code shareit.jpa.n-plus-one}. Запросы блоков id к последовательностям входят в общее число,
+ * но N+1 не считаются: при пакетном создании их число растет с размером пакета. В диагностическом режиме число
+ * запросов также возвращается в заголовке {@value #QUERY_COUNT_HEADER}. Тело ответа не буферизуется, поэтому
+ * заголовок считает запросы, выполненные до начала записи тела: для обычных ответов это все запросы, а для ответов,
+ * которые пишутся по мере чтения, полное число есть только в гистограмме.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class QueryMetricsFilter extends OncePerRequestFilter {
+
+    static final String QUERIES_METRIC = "shareit.http.server.queries";
+    static final String N_PLUS_ONE_METRIC = "shareit.jpa.n-plus-one";
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    MeterRegistry meterRegistry;
+    int nPlusOneThreshold;
+    boolean diagnostics;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!diagnostics) {
+            try (QueryCounter counter = QueryCounter.open()) {
+                chain.doFilter(request, response);
+                record(request, counter);
+            }
+            return;
+        }
+        try (QueryCounter counter = QueryCounter.open()) {
+            QueryCountResponseWrapper wrapper = new QueryCountResponseWrapper(response, counter);
+            chain.doFilter(request, wrapper);
+            wrapper.writeHeader();
+            record(request, counter);
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryCounter counter) {
+        String method = request.getMethod();
+        String uri = getUri(request);
+        DistributionSummary.builder(QUERIES_METRIC)
+                .description("SQL-запросы на один HTTP-запрос")
+                .baseUnit("statements")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(counter.getTotal());
+        for (Map.Entry<String, Integer> statement : counter.getStatements().entrySet()) {
+            if (statement.getValue() >= nPlusOneThreshold && !isSequenceCall(statement.getKey())) {
+                Counter.builder(N_PLUS_ONE_METRIC)
+                        .description("HTTP-запросы, повторившие один SQL-запрос не меньше порога")
+                        .tags("method", method, "uri", uri)
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("Возможная проблема N+1 в {} {}: запрос выполнен {} раз: {}", method, uri,
+                        statement.getValue(), statement.getKey());
+                return;
+            }
+        }
+    }
+
+    private static boolean isSequenceCall(String sql) {
+        String normalized = sql.toLowerCase(Locale.ROOT);
+        return normalized.contains("nextval") || normalized.contains("next value for");
+    }
+
+    private static String getUri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? UNKNOWN_URI : pattern.toString();
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Передает в {@link QueryCounter} каждый SQL-запрос, который готовит Hibernate.
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.statementPrepared(sql);
+        return sql;
+    }
+}
@@ -1,14 +1,24 @@
 package ru.practicum.shareit.request;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestCreatorDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.exceptions.ItemRequestStreamException;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -24,8 +34,10 @@ public class ItemRequestController {
     private static final String USER_HEADER = "X-Sharer-User-Id";
     private static final String ALL_PATH = "/all";
     private static final String ID_PATH = "/{requestId}";
+    private static final int FIRST_CHUNK_BYTES = 64 * 1024;
 
     ItemRequestService service;
+    ObjectMapper objectMapper;
 
     @PostMapping
     public ItemRequestResponseDto createItemRequest(@RequestHeader(USER_HEADER) long userId,
@@ -33,9 +45,46 @@ public class ItemRequestController {
         return service.create(dto, userId);
     }
 
+    @GetMapping(params = {"from", "size"})
+    public List<ItemRequestResponseDto> getByUser(@RequestHeader(USER_HEADER) long userId, @RequestParam int from,
+                                                  @RequestParam int size) {
+        return service.getByUser(userId, from, size);
+    }
+
+    /**
+     * Все запросы пользователя одним массивом, который пишется в ответ по мере чтения. Начало ответа копится
+     * в буфере размером {@value #FIRST_CHUNK_BYTES} байт: пока буфер не отправлен, ошибка сбрасывает его
+     * и возвращается обработчиком ошибок с нужным статусом. После отправки статус 200 изменить нельзя,
+     * поэтому ошибка обрывает соединение, и клиент получает неполный ответ, а не усеченный массив.
+     */
     @GetMapping
-    public List<ItemRequestResponseDto> getByUser(@RequestHeader(USER_HEADER) long userId) {
-        return service.getByUser(userId);
+    public void getByUser(@RequestHeader(USER_HEADER) long userId, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setBufferSize(FIRST_CHUNK_BYTES);
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        try {
+            generator.writeStartArray();
+            service.getByUser(userId, dto -> writeValue(writer, generator, dto));
+            generator.writeEndArray();
+        } catch (RuntimeException e) {
+            // генератор не закрывается, чтобы его буфер не попал в ответ
+            if (response.isCommitted()) {
+                throw new ItemRequestStreamException(e);
+            }
+            response.resetBuffer();
+            throw e;
+        }
+        generator.close();
+    }
+
+    private void writeValue(ObjectWriter writer, JsonGenerator generator, ItemRequestResponseDto dto) {
+        try {
+            writer.writeValue(generator, dto);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     @GetMapping(ALL_PATH)
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.request.exceptions;
+
+/**
+ * Ошибка после того, как начало потокового ответа уже отправлено клиенту.
+ */
+public class ItemRequestStreamException extends RuntimeException {
+    public ItemRequestStreamException(Throwable cause) {
+        super(cause.getMessage(), cause);
+    }
+}
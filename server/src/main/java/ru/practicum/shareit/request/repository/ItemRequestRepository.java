@@ -3,15 +3,28 @@ package ru.practicum.shareit.request.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
-import java.util.List;
+import javax.persistence.QueryHint;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    int STREAM_FETCH_SIZE = 100;
+
     Page<ItemRequest> findAllByCreatorNot(User creator, Pageable pageable);
 
-    List<ItemRequest> findAllByCreator(User creator);
+    Page<ItemRequest> findAllByCreatorId(long creatorId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("select r from ItemRequest r where r.creator.id = :creatorId " +
+            "order by r.created desc, r.id desc")
+    Stream<ItemRequest> streamAllByCreatorId(@Param("creatorId") long creatorId);
 
 }
@@ -5,12 +5,15 @@ import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemRequestService {
 
     ItemRequestResponseDto create(ItemRequestCreatorDto dto, long userId);
 
-    List<ItemRequestResponseDto> getByUser(long userId);
+    List<ItemRequestResponseDto> getByUser(long userId, int from, int size);
+
+    void getByUser(long userId, Consumer<ItemRequestResponseDto> consumer);
 
     List<ItemRequestResponseDto> getAll(long userId, int from, int size);
 
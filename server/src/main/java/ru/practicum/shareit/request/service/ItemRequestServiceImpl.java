@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -12,7 +13,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.dto.ItemResponseForItemRequest;
 import ru.practicum.shareit.item.mapper.ItemMapper;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestCreatorDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
@@ -23,12 +23,19 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 @Slf4j
 public class ItemRequestServiceImpl implements ItemRequestService {
@@ -40,6 +47,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     ItemRepository itemRepository;
 
+    EntityManager entityManager;
+
     @Override
     @Transactional
     public ItemRequestResponseDto create(ItemRequestCreatorDto dto, long userId) {
@@ -52,10 +61,35 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemRequestResponseDto> getByUser(long userId) {
-        User user = userService.getUser(userId);
-        List<ItemRequest> itemRequestList = repository.findAllByCreator(user);
-        return getItemRequestResponseDtos(itemRequestList);
+    public List<ItemRequestResponseDto> getByUser(long userId, int from, int size) {
+        userService.checkUserExists(userId);
+        Pageable pageable = PageRequest.of(from / size, size,
+                Sort.by(Sort.Direction.DESC, "created").and(Sort.by(Sort.Direction.DESC, "id")));
+        Page<ItemRequest> requests = repository.findAllByCreatorId(userId, pageable);
+        return getItemRequestResponseDtos(requests.getContent());
+    }
+
+    /**
+     * Передает запросы пользователя в consumer по мере чтения из курсора. Запросы обрабатываются
+     * порциями: для каждой порции вещи загружаются одним запросом, после чего контекст
+     * персистентности очищается, поэтому расход памяти не зависит от длины истории.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void getByUser(long userId, Consumer<ItemRequestResponseDto> consumer) {
+        userService.checkUserExists(userId);
+        try (Stream<ItemRequest> requests = repository.streamAllByCreatorId(userId)) {
+            List<ItemRequest> chunk = new ArrayList<>(ItemRequestRepository.STREAM_FETCH_SIZE);
+            Iterator<ItemRequest> iterator = requests.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == ItemRequestRepository.STREAM_FETCH_SIZE || !iterator.hasNext()) {
+                    getItemRequestResponseDtos(chunk).forEach(consumer);
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
     }
 
     @Override
@@ -69,25 +103,32 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     private List<ItemRequestResponseDto> getItemRequestResponseDtos(List<ItemRequest> itemRequestList) {
-        List<ItemRequestResponseDto> responseDtos = itemRequestList.stream()
-                .map(mapper::toItemRequestResponse)
+        if (itemRequestList.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestIds = itemRequestList.stream()
+                .map(ItemRequest::getId)
                 .collect(Collectors.toList());
-        List<List<Item>> items = itemRequestList.stream()
-                .map(itemRepository::findAllByRequest)
+        Map<Long, List<ItemResponseForItemRequest>> items = getItemsByRequest(requestIds);
+        return itemRequestList.stream()
+                .map(request -> {
+                    ItemRequestResponseDto responseDto = mapper.toItemRequestResponse(request);
+                    responseDto.setItems(items.getOrDefault(request.getId(), new ArrayList<>()));
+                    return responseDto;
+                })
                 .collect(Collectors.toList());
-        for (int i = 0; i < responseDtos.size(); i++) {
-            List<ItemResponseForItemRequest> itemResp = items.get(i).stream()
-                    .map(itemMapper::itemToResponseForItemRequest)
-                    .collect(Collectors.toList());
-            responseDtos.get(i).setItems(itemResp);
-        }
-        return responseDtos;
+    }
+
+    private Map<Long, List<ItemResponseForItemRequest>> getItemsByRequest(List<Long> requestIds) {
+        return itemRepository.findAllByRequestIds(requestIds).stream()
+                .collect(Collectors.groupingBy(i -> i.getRequest().getId(),
+                        Collectors.mapping(itemMapper::itemToResponseForItemRequest, Collectors.toList())));
     }
 
     @Override
     @Transactional(readOnly = true)
     public ItemRequestResponseDto getById(long userId, Long requestId) {
-        userService.getUser(userId);
+        userService.checkUserExists(userId);
         ItemRequest result = getRequestById(requestId);
         ItemRequestResponseDto responseDto = mapper.toItemRequestResponse(result);
         List<ItemResponseForItemRequest> items = itemRepository.findAllByRequest(result).stream()
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.transfer;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.transfer.dto.TransferJobDto;
+import ru.practicum.shareit.transfer.model.TransferJob;
+import ru.practicum.shareit.transfer.service.TransferService;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Административные выгрузка и загрузка таблиц. Доступна только на сервере, шлюз эти запросы не проксирует;
+ * каждый запрос передает токен администратора (см. {@link ru.practicum.shareit.transfer.config.TransferAdminInterceptor}).
+ */
+@RestController
+@RequestMapping("/admin/transfers")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TransferController {
+
+    private static final String ID_PATH = "/{jobId}";
+    private static final String DEFAULT_FORMAT = "csv";
+
+    TransferService service;
+
+    @PostMapping("/export")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public TransferJobDto startExport(@RequestParam String table,
+                                      @RequestParam(defaultValue = DEFAULT_FORMAT) String format) {
+        return service.startExport(table, format);
+    }
+
+    @PostMapping("/import")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public TransferJobDto startImport(@RequestParam String table,
+                                      @RequestParam(defaultValue = DEFAULT_FORMAT) String format,
+                                      HttpServletRequest request) throws IOException {
+        return service.startImport(table, format, request.getInputStream(), request.getContentLengthLong());
+    }
+
+    @GetMapping
+    public List<TransferJobDto> findAll() {
+        return service.getJobs();
+    }
+
+    @GetMapping(ID_PATH)
+    public TransferJobDto getJobById(@PathVariable String jobId) {
+        return service.getJobById(jobId);
+    }
+
+    @GetMapping(ID_PATH + "/file")
+    public ResponseEntity<Resource> getFile(@PathVariable String jobId) {
+        TransferJob job = service.getExportedJob(jobId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(job.getFormat().getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(job.getFile().getFileName().toString())
+                        .build()
+                        .toString())
+                .body(new FileSystemResource(job.getFile()));
+    }
+
+    @DeleteMapping(ID_PATH)
+    public void deleteJob(@PathVariable String jobId) {
+        service.deleteJob(jobId);
+    }
+}
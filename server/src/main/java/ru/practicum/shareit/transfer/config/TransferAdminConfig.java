@@ -0,0 +1,22 @@
+package ru.practicum.shareit.transfer.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class TransferAdminConfig implements WebMvcConfigurer {
+
+    private final String adminToken;
+
+    public TransferAdminConfig(@Value("${shareit.transfer.admin-token}") String adminToken) {
+        this.adminToken = adminToken;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new TransferAdminInterceptor(adminToken))
+                .addPathPatterns("/admin/**");
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.transfer.config;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.transfer.exceptions.TransferAccessDeniedException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Пропускает к административным запросам только с токеном {@code shareit.transfer.admin-token} в заголовке
+ * {@value #ADMIN_TOKEN_HEADER}. Пока токен не задан, административные запросы отклоняются все.
+ */
+public class TransferAdminInterceptor implements HandlerInterceptor {
+
+    public static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    private final byte[] adminToken;
+
+    public TransferAdminInterceptor(String adminToken) {
+        this.adminToken = adminToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String token = request.getHeader(ADMIN_TOKEN_HEADER);
+        // сравнение за постоянное время не выдает совпавшее начало токена по времени ответа
+        if (adminToken.length == 0 || token == null
+                || !MessageDigest.isEqual(adminToken, token.getBytes(StandardCharsets.UTF_8))) {
+            throw new TransferAccessDeniedException("Нет доступа к административным запросам");
+        }
+        return true;
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.transfer.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import ru.practicum.shareit.transfer.dialect.H2TransferDialect;
+import ru.practicum.shareit.transfer.dialect.PostgresTransferDialect;
+import ru.practicum.shareit.transfer.dialect.TransferDialect;
+import ru.practicum.shareit.transfer.model.TransferJob;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Выгрузка и загрузка таблиц: реализация выбирается по базе, задачи выполняет отдельный пул потоков,
+ * а не потоки HTTP-запросов.
+ */
+@Configuration
+@Slf4j
+@EnableConfigurationProperties(TransferProperties.class)
+public class TransferConfig {
+
+    @Bean
+    public TransferDialect transferDialect(DataSource dataSource, JdbcTemplate jdbcTemplate,
+                                           ObjectMapper objectMapper) throws MetaDataAccessException {
+        String productName = JdbcUtils.extractDatabaseMetaData(dataSource,
+                DatabaseMetaData::getDatabaseProductName);
+        switch (DatabaseDriver.fromProductName(productName)) {
+            case POSTGRESQL:
+                return new PostgresTransferDialect(jdbcTemplate);
+            case H2:
+                return new H2TransferDialect(jdbcTemplate, objectMapper);
+            default:
+                throw new IllegalStateException(String.format("Выгрузка и загрузка таблиц для %s не поддерживается",
+                        productName));
+        }
+    }
+
+    /**
+     * Задачи выгрузки и загрузки. Завершенная задача хранится {@code shareit.transfer.job-retention}, а при
+     * числе завершенных задач больше {@code shareit.transfer.max-finished-jobs} вытесняются самые давние;
+     * вместе с задачей удаляется ее файл. Выполняющиеся задачи весят 0 и не истекают, поэтому не вытесняются,
+     * а по окончании сохраняются заново, чтобы пересчитать вес и срок.
+     */
+    @Bean
+    public Cache<String, TransferJob> transferJobs(TransferProperties properties) {
+        long retention = properties.getJobRetention().toNanos();
+        return Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxFinishedJobs())
+                .weigher((String id, TransferJob job) -> job.isFinished() ? 1 : 0)
+                .expireAfter(new Expiry<String, TransferJob>() {
+                    @Override
+                    public long expireAfterCreate(String id, TransferJob job, long currentTime) {
+                        return job.isFinished() ? retention : Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String id, TransferJob job, long currentTime,
+                                                  long currentDuration) {
+                        return job.isFinished() ? retention : Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String id, TransferJob job, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .scheduler(Scheduler.systemScheduler())
+                .removalListener((String id, TransferJob job, RemovalCause cause) -> {
+                    if (cause.wasEvicted() && job != null) {
+                        deleteFile(job.getFile());
+                    }
+                })
+                .build();
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor transferExecutor(TransferProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getThreads());
+        executor.setMaxPoolSize(properties.getThreads());
+        executor.setThreadNamePrefix("transfer-");
+        return executor;
+    }
+
+    private static void deleteFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Не удалось удалить файл {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.transfer.config;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Каталог файлов выгрузки и загрузки, число потоков, которые выполняют задачи, сколько хранятся
+ * завершенные задачи и наибольший размер загружаемого файла.
+ */
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties(prefix = "shareit.transfer")
+public class TransferProperties {
+    Path directory = Path.of(System.getProperty("java.io.tmpdir"), "shareit-transfers");
+    int threads = 2;
+    /**
+     * Сколько завершенная задача и ее файл хранятся после окончания.
+     */
+    Duration jobRetention = Duration.ofHours(24);
+    /**
+     * Наибольшее число хранимых завершенных задач, выполняющиеся задачи не вытесняются.
+     */
+    long maxFinishedJobs = 1000;
+    /**
+     * Наибольший размер тела запроса загрузки: больший файл не записывается на диск.
+     */
+    DataSize maxImportSize = DataSize.ofMegabytes(100);
+}
@@ -0,0 +1,177 @@
+package ru.practicum.shareit.transfer.dialect;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import ru.practicum.shareit.transfer.model.TransferFormat;
+import ru.practicum.shareit.transfer.model.TransferJob;
+import ru.practicum.shareit.transfer.model.TransferTable;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Замена {@code COPY} для H2, на которой работают тесты: CSV пишут и читают функции {@code CSVWRITE}
+ * и {@code CSVREAD}, NDJSON идет через JDBC пакетами по {@value #BATCH_SIZE} строк.
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class H2TransferDialect implements TransferDialect {
+
+    private static final String CSV_OPTIONS = "'charset=UTF-8'";
+    private static final int BATCH_SIZE = 1000;
+
+    JdbcTemplate jdbcTemplate;
+    ObjectMapper objectMapper;
+
+    @Override
+    public long exportTable(TransferJob job) {
+        TransferTable table = job.getTable();
+        String query = String.format("SELECT %s FROM %s ORDER BY id", table.getColumnList(), table.getTableName());
+        if (job.getFormat() == TransferFormat.CSV) {
+            Long rows = jdbcTemplate.queryForObject(String.format("CALL CSVWRITE(%s, '%s', %s)",
+                    toLiteral(job.getFile()), query, CSV_OPTIONS), Long.class);
+            job.addBytes(size(job.getFile()));
+            return rows == null ? 0 : rows;
+        }
+        try (OutputStream out = ProgressStreams.counting(
+                new BufferedOutputStream(Files.newOutputStream(job.getFile())), job::addBytes)) {
+            jdbcTemplate.query(query, (RowCallbackHandler) rs -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(toRow(table, rs)));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                job.addRows(1);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return job.getRows().get();
+    }
+
+    @Override
+    public long importTable(TransferJob job) {
+        TransferTable table = job.getTable();
+        if (job.getFormat() == TransferFormat.CSV) {
+            int rows = jdbcTemplate.update(String.format("INSERT INTO %s (%s) OVERRIDING SYSTEM VALUE " +
+                    "SELECT * FROM CSVREAD(%s, NULL, %s)", table.getTableName(), table.getColumnList(),
+                    toLiteral(job.getFile()), CSV_OPTIONS));
+            job.addBytes(size(job.getFile()));
+            return rows;
+        }
+        String sql = String.format("INSERT INTO %s (%s) OVERRIDING SYSTEM VALUE VALUES (%s)", table.getTableName(),
+                table.getColumnList(), String.join(", ", Collections.nCopies(table.getColumns().size(), "?")));
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ProgressStreams.counting(
+                Files.newInputStream(job.getFile()), job::addBytes), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(toValues(table, objectMapper.readTree(line)));
+                if (batch.size() == BATCH_SIZE) {
+                    insert(job, sql, batch);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        insert(job, sql, batch);
+        return job.getRows().get();
+    }
+
+    @Override
+    public void restartIds(TransferJob job) {
+        TransferTable table = job.getTable();
+        Long maxId = jdbcTemplate.queryForObject(String.format("SELECT COALESCE(MAX(id), 0) FROM %s",
+                table.getTableName()), Long.class);
+        if (table.getSequence() == null) {
+            Map<String, Object> identity = jdbcTemplate.queryForMap("SELECT IDENTITY_BASE, IDENTITY_INCREMENT " +
+                    "FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = UPPER(?) AND COLUMN_NAME = 'ID'",
+                    table.getTableName());
+            jdbcTemplate.execute(String.format("ALTER TABLE %s ALTER COLUMN id RESTART WITH %d",
+                    table.getTableName(), nextId(identity, "IDENTITY_BASE", "IDENTITY_INCREMENT", maxId)));
+        } else {
+            Map<String, Object> sequence = jdbcTemplate.queryForMap("SELECT BASE_VALUE, INCREMENT " +
+                    "FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = UPPER(?)", table.getSequence());
+            jdbcTemplate.execute(String.format("ALTER SEQUENCE %s RESTART WITH %d", table.getSequence(),
+                    nextId(sequence, "BASE_VALUE", "INCREMENT", maxId)));
+        }
+    }
+
+    private static long nextId(Map<String, Object> generator, String baseColumn, String incrementColumn,
+                               Long maxId) {
+        return TransferDialect.nextId(((Number) generator.get(baseColumn)).longValue(), maxId == null ? 0 : maxId,
+                ((Number) generator.get(incrementColumn)).longValue());
+    }
+
+    private void insert(TransferJob job, String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            job.addRows(batch.size());
+            batch.clear();
+        }
+    }
+
+    private static Map<String, Object> toRow(TransferTable table, ResultSet rs) throws SQLException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < table.getColumns().size(); i++) {
+            Object value = rs.getObject(i + 1);
+            row.put(table.getColumns().get(i), value instanceof Timestamp
+                    ? ((Timestamp) value).toLocalDateTime()
+                    : value);
+        }
+        return row;
+    }
+
+    private static Object[] toValues(TransferTable table, JsonNode row) {
+        Object[] values = new Object[table.getColumns().size()];
+        for (int i = 0; i < values.length; i++) {
+            JsonNode value = row.get(table.getColumns().get(i));
+            if (value == null || value.isNull()) {
+                values[i] = null;
+            } else if (value.isIntegralNumber()) {
+                values[i] = value.asLong();
+            } else if (value.isBoolean()) {
+                values[i] = value.asBoolean();
+            } else {
+                values[i] = value.asText();
+            }
+        }
+        return values;
+    }
+
+    private static String toLiteral(Path file) {
+        return "'" + file.toAbsolutePath().toString().replace("'", "''") + "'";
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.transfer.dialect;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.transfer.model.TransferFormat;
+import ru.practicum.shareit.transfer.model.TransferJob;
+import ru.practicum.shareit.transfer.model.TransferTable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.stream.Collectors;
+
+/**
+ * Выгрузка и загрузка через {@code COPY ... TO STDOUT / FROM STDIN}: строки идут потоком между файлом
+ * и базой без разбора на сервере. NDJSON собирает и разбирает сама база ({@code row_to_json},
+ * {@code jsonb_populate_record}), загрузка идет через временную таблицу.
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PostgresTransferDialect implements TransferDialect {
+
+    private static final String CSV_OPTIONS = "(FORMAT csv, HEADER true)";
+    // строка JSON пишется как есть: кавычка и разделитель CSV заменены символами, которых в JSON нет,
+    // управляющие символы внутри строк JSON всегда экранированы
+    private static final String JSON_LINES_OPTIONS = "(FORMAT csv, QUOTE E'\\x01', DELIMITER E'\\x02')";
+    private static final String STAGING_TABLE = "transfer_staging";
+
+    JdbcTemplate jdbcTemplate;
+
+    @Override
+    public long exportTable(TransferJob job) {
+        TransferTable table = job.getTable();
+        String query = String.format("SELECT %s FROM %s ORDER BY id", table.getColumnList(), table.getTableName());
+        String sql = job.getFormat() == TransferFormat.CSV
+                ? String.format("COPY (%s) TO STDOUT WITH %s", query, CSV_OPTIONS)
+                : String.format("COPY (SELECT row_to_json(r) FROM (%s) r) TO STDOUT WITH %s", query,
+                JSON_LINES_OPTIONS);
+        return copy(copyManager -> {
+            try (OutputStream out = ProgressStreams.counting(
+                    new BufferedOutputStream(Files.newOutputStream(job.getFile())), job::addBytes)) {
+                return copyManager.copyOut(sql, out);
+            }
+        });
+    }
+
+    @Override
+    public long importTable(TransferJob job) {
+        TransferTable table = job.getTable();
+        if (job.getFormat() == TransferFormat.CSV) {
+            return copyIn(job, String.format("COPY %s (%s) FROM STDIN WITH %s", table.getTableName(),
+                    table.getColumnList(), CSV_OPTIONS));
+        }
+        jdbcTemplate.execute(String.format("CREATE TEMP TABLE %s (doc jsonb) ON COMMIT DROP", STAGING_TABLE));
+        copyIn(job, String.format("COPY %s (doc) FROM STDIN WITH %s", STAGING_TABLE, JSON_LINES_OPTIONS));
+        String columns = table.getColumns().stream()
+                .map(column -> "r." + column)
+                .collect(Collectors.joining(", "));
+        return jdbcTemplate.update(String.format("INSERT INTO %1$s (%2$s) OVERRIDING SYSTEM VALUE SELECT %3$s " +
+                        "FROM %4$s s, jsonb_populate_record(NULL::%1$s, s.doc) r", table.getTableName(),
+                table.getColumnList(), columns, STAGING_TABLE));
+    }
+
+    @Override
+    public void restartIds(TransferJob job) {
+        String tableName = job.getTable().getTableName();
+        String sequence = jdbcTemplate.queryForObject("SELECT pg_get_serial_sequence(?, 'id')", String.class,
+                tableName);
+        // текущее значение и новое считаются одним запросом, чтобы не разойтись с nextval других экземпляров
+        jdbcTemplate.queryForObject(String.format("SELECT setval(p.seqrelid, GREATEST(" +
+                "CASE WHEN s.is_called THEN s.last_value + p.seqincrement ELSE s.last_value END, " +
+                "CEIL((SELECT COALESCE(MAX(id), 0) + 1 FROM %1$s) / p.seqincrement::numeric)::bigint " +
+                "* p.seqincrement), false) FROM %2$s s, pg_sequence p WHERE p.seqrelid = '%2$s'::regclass",
+                tableName, sequence), Long.class);
+    }
+
+    private long copyIn(TransferJob job, String sql) {
+        return copy(copyManager -> {
+            try (InputStream in = ProgressStreams.counting(
+                    new BufferedInputStream(Files.newInputStream(job.getFile())), job::addBytes)) {
+                return copyManager.copyIn(sql, in);
+            }
+        });
+    }
+
+    private long copy(CopyCallback callback) {
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return callback.copy(connection.unwrap(PGConnection.class).getCopyAPI());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    @FunctionalInterface
+    private interface CopyCallback {
+        long copy(CopyManager copyManager) throws SQLException, IOException;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.transfer.dialect;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * Потоки, которые сообщают о числе прочитанных или записанных байт.
+ */
+final class ProgressStreams {
+
+    private ProgressStreams() {
+    }
+
+    static InputStream counting(InputStream in, LongConsumer progress) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int value = super.read();
+                if (value >= 0) {
+                    progress.accept(1);
+                }
+                return value;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int count = super.read(buffer, offset, length);
+                if (count > 0) {
+                    progress.accept(count);
+                }
+                return count;
+            }
+        };
+    }
+
+    static OutputStream counting(OutputStream out, LongConsumer progress) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int value) throws IOException {
+                out.write(value);
+                progress.accept(1);
+            }
+
+            @Override
+            public void write(byte[] buffer, int offset, int length) throws IOException {
+                out.write(buffer, offset, length);
+                progress.accept(length);
+            }
+        };
+    }
+}
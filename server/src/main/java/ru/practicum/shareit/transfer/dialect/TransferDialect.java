@@ -0,0 +1,40 @@
+package ru.practicum.shareit.transfer.dialect;
+
+import ru.practicum.shareit.transfer.model.TransferJob;
+
+/**
+ * Выгрузка и загрузка таблицы средствами конкретной базы. Методы вызываются внутри транзакции
+ * и сообщают о прогрессе через {@link TransferJob#addBytes} и {@link TransferJob#addRows}.
+ */
+public interface TransferDialect {
+
+    /**
+     * Пишет строки таблицы задачи в ее файл в порядке id.
+     *
+     * @return число выгруженных строк
+     */
+    long exportTable(TransferJob job);
+
+    /**
+     * Добавляет в таблицу строки из файла задачи вместе с их id.
+     *
+     * @return число загруженных строк
+     */
+    long importTable(TransferJob job);
+
+    /**
+     * Переставляет генератор id таблицы за наибольший id, чтобы новые строки не совпали с загруженными.
+     * Генератор никогда не сдвигается назад: экземпляры сервера берут из последовательности блоки id
+     * по ее шагу и держат их в памяти, поэтому меньшее значение выдало бы уже занятые блоки.
+     */
+    void restartIds(TransferJob job);
+
+    /**
+     * Следующее значение генератора: не меньше текущего и не меньше наибольшего id + 1,
+     * округленного вверх до шага генератора.
+     */
+    static long nextId(long currentNext, long maxId, long increment) {
+        long afterMax = (maxId + increment) / increment * increment;
+        return Math.max(currentNext, afterMax);
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.transfer.dto;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.transfer.model.TransferDirection;
+import ru.practicum.shareit.transfer.model.TransferFormat;
+import ru.practicum.shareit.transfer.model.TransferStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Состояние задачи выгрузки или загрузки. {@code progress} — доля обработанных байт файла от 0 до 1,
+ * известна только для загрузки, размер выгрузки заранее неизвестен.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Builder
+@Data
+public class TransferJobDto {
+    String id;
+    TransferDirection direction;
+    String table;
+    TransferFormat format;
+    TransferStatus status;
+    long rows;
+    long bytes;
+    Long totalBytes;
+    Double progress;
+    String error;
+    LocalDateTime created;
+    LocalDateTime started;
+    LocalDateTime finished;
+}
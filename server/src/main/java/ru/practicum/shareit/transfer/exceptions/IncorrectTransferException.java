@@ -0,0 +1,7 @@
+package ru.practicum.shareit.transfer.exceptions;
+
+public class IncorrectTransferException extends RuntimeException {
+    public IncorrectTransferException(String message) {
+        super(message);
+    }
+}
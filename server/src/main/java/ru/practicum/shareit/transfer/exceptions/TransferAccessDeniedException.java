@@ -0,0 +1,7 @@
+package ru.practicum.shareit.transfer.exceptions;
+
+public class TransferAccessDeniedException extends RuntimeException {
+    public TransferAccessDeniedException(String message) {
+        super(message);
+    }
+}
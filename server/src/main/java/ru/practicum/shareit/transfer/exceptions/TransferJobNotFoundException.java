@@ -0,0 +1,7 @@
+package ru.practicum.shareit.transfer.exceptions;
+
+public class TransferJobNotFoundException extends RuntimeException {
+    public TransferJobNotFoundException(String message) {
+        super(message);
+    }
+}
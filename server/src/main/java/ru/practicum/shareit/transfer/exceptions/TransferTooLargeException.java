@@ -0,0 +1,7 @@
+package ru.practicum.shareit.transfer.exceptions;
+
+public class TransferTooLargeException extends RuntimeException {
+    public TransferTooLargeException(String message) {
+        super(message);
+    }
+}
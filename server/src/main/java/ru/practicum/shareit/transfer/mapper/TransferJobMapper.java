@@ -0,0 +1,8 @@
+package ru.practicum.shareit.transfer.mapper;
+
+import ru.practicum.shareit.transfer.dto.TransferJobDto;
+import ru.practicum.shareit.transfer.model.TransferJob;
+
+public interface TransferJobMapper {
+    TransferJobDto toTransferJobDto(TransferJob job);
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.transfer.mapper;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.transfer.dto.TransferJobDto;
+import ru.practicum.shareit.transfer.model.TransferJob;
+import ru.practicum.shareit.transfer.model.TransferStatus;
+
+@Component
+public class TransferJobMapperImpl implements TransferJobMapper {
+    @Override
+    public TransferJobDto toTransferJobDto(TransferJob job) {
+        long bytes = job.getBytes().get();
+        Double progress = null;
+        if (job.getStatus() == TransferStatus.DONE) {
+            progress = 1.0;
+        } else if (job.getTotalBytes() != null && job.getTotalBytes() > 0) {
+            progress = Math.min(1.0, (double) bytes / job.getTotalBytes());
+        }
+        return TransferJobDto.builder()
+                .id(job.getId())
+                .direction(job.getDirection())
+                .table(job.getTable().getTableName())
+                .format(job.getFormat())
+                .status(job.getStatus())
+                .rows(job.getRows().get())
+                .bytes(bytes)
+                .totalBytes(job.getTotalBytes())
+                .progress(progress)
+                .error(job.getError())
+                .created(job.getCreated())
+                .started(job.getStarted())
+                .finished(job.getFinished())
+                .build();
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.transfer.model;
+
+public enum TransferDirection {
+    EXPORT,
+    IMPORT
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.transfer.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.transfer.exceptions.IncorrectTransferException;
+
+/**
+ * Формат файла: CSV с заголовком или NDJSON, по одному JSON-объекту строки таблицы на строку файла.
+ */
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public enum TransferFormat {
+    CSV("csv", "text/csv"),
+    NDJSON("ndjson", "application/x-ndjson");
+
+    String extension;
+    String contentType;
+
+    TransferFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public static TransferFormat from(String name) {
+        for (TransferFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IncorrectTransferException(String.format("Формат %s не поддерживается", name));
+    }
+}
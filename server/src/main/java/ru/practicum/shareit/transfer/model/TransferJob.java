@@ -0,0 +1,83 @@
+package ru.practicum.shareit.transfer.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Задача выгрузки или загрузки одной таблицы. Задачи хранятся в памяти сервера, прогресс обновляет поток,
+ * который выполняет задачу, а читают потоки запросов, поэтому изменяемые поля volatile или атомарные.
+ */
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TransferJob {
+    final String id;
+    final TransferDirection direction;
+    final TransferTable table;
+    final TransferFormat format;
+    final Path file;
+    /**
+     * Размер загружаемого файла, для выгрузки неизвестен заранее.
+     */
+    final Long totalBytes;
+    final LocalDateTime created;
+    final AtomicLong bytes = new AtomicLong();
+    final AtomicLong rows = new AtomicLong();
+    volatile TransferStatus status = TransferStatus.PENDING;
+    volatile LocalDateTime started;
+    volatile LocalDateTime finished;
+    volatile String error;
+
+    private TransferJob(String id, TransferDirection direction, TransferTable table, TransferFormat format, Path file,
+                        Long totalBytes) {
+        this.id = id;
+        this.direction = direction;
+        this.table = table;
+        this.format = format;
+        this.file = file;
+        this.totalBytes = totalBytes;
+        this.created = LocalDateTime.now();
+    }
+
+    public static TransferJob forExport(String id, TransferTable table, TransferFormat format, Path file) {
+        return new TransferJob(id, TransferDirection.EXPORT, table, format, file, null);
+    }
+
+    public static TransferJob forImport(String id, TransferTable table, TransferFormat format, Path file,
+                                        long totalBytes) {
+        return new TransferJob(id, TransferDirection.IMPORT, table, format, file, totalBytes);
+    }
+
+    public void start() {
+        started = LocalDateTime.now();
+        status = TransferStatus.RUNNING;
+    }
+
+    public void addBytes(long count) {
+        bytes.addAndGet(count);
+    }
+
+    public void addRows(long count) {
+        rows.addAndGet(count);
+    }
+
+    public void finish(long rowCount) {
+        rows.set(rowCount);
+        finished = LocalDateTime.now();
+        status = TransferStatus.DONE;
+    }
+
+    public boolean isFinished() {
+        return status == TransferStatus.DONE || status == TransferStatus.FAILED;
+    }
+
+    public void fail(String message) {
+        error = message;
+        finished = LocalDateTime.now();
+        status = TransferStatus.FAILED;
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.transfer.model;
+
+public enum TransferStatus {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED
+}
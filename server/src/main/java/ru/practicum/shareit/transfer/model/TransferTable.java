@@ -0,0 +1,49 @@
+package ru.practicum.shareit.transfer.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.transfer.exceptions.IncorrectTransferException;
+
+import java.util.List;
+
+/**
+ * Таблицы, доступные для выгрузки и загрузки, в порядке, в котором их нужно загружать из-за внешних ключей.
+ * Колонки перечислены явно: файл выгрузки содержит именно их и в этом же порядке, имена таблиц и колонок
+ * подставляются в SQL только отсюда.
+ */
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public enum TransferTable {
+    USERS("users", null, List.of("id", "name", "email")),
+    REQUESTS("requests", null, List.of("id", "description", "created", "creator")),
+    ITEMS("items", "items_seq", List.of("id", "owner", "name", "description", "available", "request_id")),
+    BOOKING("booking", "booking_seq", List.of("id", "item_id", "booker_id", "start_booking", "end_booking", "status")),
+    COMMENTS("comments", null, List.of("id", "text", "item_id", "author_id", "created"));
+
+    String tableName;
+    /**
+     * Последовательность id, {@code null} для таблиц с identity-колонкой.
+     */
+    String sequence;
+    List<String> columns;
+
+    TransferTable(String tableName, String sequence, List<String> columns) {
+        this.tableName = tableName;
+        this.sequence = sequence;
+        this.columns = columns;
+    }
+
+    public String getColumnList() {
+        return String.join(", ", columns);
+    }
+
+    public static TransferTable from(String name) {
+        for (TransferTable table : values()) {
+            if (table.tableName.equalsIgnoreCase(name)) {
+                return table;
+            }
+        }
+        throw new IncorrectTransferException(String.format("Таблица %s не поддерживается", name));
+    }
+}
@@ -0,0 +1,215 @@
+package ru.practicum.shareit.transfer.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.annotation.Timed;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.service.ItemOwnerViewService;
+import ru.practicum.shareit.transfer.config.TransferProperties;
+import ru.practicum.shareit.transfer.dialect.TransferDialect;
+import ru.practicum.shareit.transfer.dto.TransferJobDto;
+import ru.practicum.shareit.transfer.exceptions.IncorrectTransferException;
+import ru.practicum.shareit.transfer.exceptions.TransferJobNotFoundException;
+import ru.practicum.shareit.transfer.exceptions.TransferTooLargeException;
+import ru.practicum.shareit.transfer.mapper.TransferJobMapper;
+import ru.practicum.shareit.transfer.model.TransferDirection;
+import ru.practicum.shareit.transfer.model.TransferFormat;
+import ru.practicum.shareit.transfer.model.TransferJob;
+import ru.practicum.shareit.transfer.model.TransferStatus;
+import ru.practicum.shareit.transfer.model.TransferTable;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Задачи выгрузки и загрузки таблиц. Данные идут потоком между файлом в каталоге
+ * {@code shareit.transfer.directory} и базой, поэтому память сервера не зависит от размера таблицы.
+ * Загрузка выполняется в одной транзакции: при ошибке в таблицу не попадает ни одна строка.
+ * После загрузки генератор id таблицы переставляется за наибольший id, кэш второго уровня очищается,
+ * а после загрузки бронирований и отзывов записи витрины владельца помечаются устаревшими.
+ * Завершенные задачи и их файлы удаляются по истечении {@code shareit.transfer.job-retention}.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Timed(value = "shareit.service", histogram = true)
+@RequiredArgsConstructor
+@Slf4j
+public class TransferService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    TransferDialect dialect;
+    TransferJobMapper mapper;
+    TransferProperties properties;
+    ThreadPoolTaskExecutor transferExecutor;
+    PlatformTransactionManager transactionManager;
+    EntityManagerFactory entityManagerFactory;
+    ItemOwnerViewService ownerViewService;
+    Cache<String, TransferJob> jobs;
+
+    public TransferJobDto startExport(String tableName, String formatName) {
+        TransferTable table = TransferTable.from(tableName);
+        TransferFormat format = TransferFormat.from(formatName);
+        String id = UUID.randomUUID().toString();
+        return submit(TransferJob.forExport(id, table, format, getFile(id, table, format)));
+    }
+
+    /**
+     * Записывает тело запроса в файл задачи и ставит загрузку в очередь. Тело длиннее
+     * {@code shareit.transfer.max-import-size} отклоняется: по объявленной длине до записи,
+     * а без нее, как только записанная часть превысит предел.
+     *
+     * @param contentLength объявленная длина тела или -1, если она неизвестна
+     */
+    public TransferJobDto startImport(String tableName, String formatName, InputStream body, long contentLength) {
+        TransferTable table = TransferTable.from(tableName);
+        TransferFormat format = TransferFormat.from(formatName);
+        long maxSize = properties.getMaxImportSize().toBytes();
+        if (contentLength > maxSize) {
+            throw tooLarge(maxSize);
+        }
+        String id = UUID.randomUUID().toString();
+        Path file = getFile(id, table, format);
+        long size = 0;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                size += read;
+                if (size > maxSize) {
+                    throw tooLarge(maxSize);
+                }
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            deleteFile(file);
+            throw new UncheckedIOException(e);
+        } catch (TransferTooLargeException e) {
+            deleteFile(file);
+            throw e;
+        }
+        if (size == 0) {
+            deleteFile(file);
+            throw new IncorrectTransferException("Тело запроса пусто, файл загрузки передается " +
+                    "с типом " + format.getContentType());
+        }
+        return submit(TransferJob.forImport(id, table, format, file, size));
+    }
+
+    public List<TransferJobDto> getJobs() {
+        return jobs.asMap().values().stream()
+                .sorted(Comparator.comparing(TransferJob::getCreated).reversed())
+                .map(mapper::toTransferJobDto)
+                .collect(Collectors.toList());
+    }
+
+    public TransferJobDto getJobById(String jobId) {
+        return mapper.toTransferJobDto(getJob(jobId));
+    }
+
+    public TransferJob getExportedJob(String jobId) {
+        TransferJob job = getJob(jobId);
+        if (job.getDirection() != TransferDirection.EXPORT || job.getStatus() != TransferStatus.DONE) {
+            throw new IncorrectTransferException(String.format("Файл выгрузки задачи %s не готов", jobId));
+        }
+        return job;
+    }
+
+    public void deleteJob(String jobId) {
+        TransferJob job = getJob(jobId);
+        if (job.getStatus() == TransferStatus.PENDING || job.getStatus() == TransferStatus.RUNNING) {
+            throw new IncorrectTransferException(String.format("Задача %s еще выполняется", jobId));
+        }
+        jobs.invalidate(jobId);
+        deleteFile(job.getFile());
+    }
+
+    private static TransferTooLargeException tooLarge(long maxSize) {
+        return new TransferTooLargeException(String.format("Файл загрузки больше %d байт", maxSize));
+    }
+
+    private TransferJob getJob(String jobId) {
+        TransferJob job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new TransferJobNotFoundException(String.format("Задача выгрузки или загрузки %s не найдена",
+                    jobId));
+        }
+        return job;
+    }
+
+    private TransferJobDto submit(TransferJob job) {
+        jobs.put(job.getId(), job);
+        transferExecutor.execute(() -> run(job));
+        log.info("Задача {} ({} {} в формате {}) поставлена в очередь", job.getId(), job.getDirection(),
+                job.getTable().getTableName(), job.getFormat());
+        return mapper.toTransferJobDto(job);
+    }
+
+    private void run(TransferJob job) {
+        job.start();
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            Long rows;
+            if (job.getDirection() == TransferDirection.EXPORT) {
+                transaction.setReadOnly(true);
+                rows = transaction.execute(status -> dialect.exportTable(job));
+            } else {
+                rows = transaction.execute(status -> importTable(job));
+                entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+            }
+            job.finish(rows == null ? 0 : rows);
+            log.info("Задача {} выполнена: строк {}, байт {}", job.getId(), job.getRows(), job.getBytes());
+        } catch (RuntimeException e) {
+            job.fail(e.getMessage());
+            log.error("Задача {} завершилась с ошибкой", job.getId(), e);
+        } finally {
+            // завершенная задача сохраняется заново, чтобы кэш задач начал отсчет срока ее хранения
+            jobs.put(job.getId(), job);
+        }
+    }
+
+    private long importTable(TransferJob job) {
+        long rows = dialect.importTable(job);
+        dialect.restartIds(job);
+        if (job.getTable() == TransferTable.ITEMS) {
+            ownerViewService.itemsImported();
+        } else if (job.getTable() == TransferTable.BOOKING || job.getTable() == TransferTable.COMMENTS) {
+            ownerViewService.allExpired();
+        }
+        return rows;
+    }
+
+    private Path getFile(String id, TransferTable table, TransferFormat format) {
+        try {
+            Files.createDirectories(properties.getDirectory());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return properties.getDirectory()
+                .resolve(String.format("%s-%s.%s", table.getTableName(), id, format.getExtension()));
+    }
+
+    private static void deleteFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Не удалось удалить файл {}", file, e);
+        }
+    }
+}
@@ -31,6 +31,11 @@ public class UserController {
         return service.getAll(from, size);
     }
 
+    @GetMapping(params = "ids")
+    public List<UserResponseDto> findByIds(@RequestParam List<Long> ids) {
+        return service.getByIds(ids);
+    }
+
     @PostMapping
     public UserResponseDto create(@RequestBody UserCreatorDto dto) {
         return service.createUser(dto);
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.user.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class UserCacheConfig {
+
+    /**
+     * Кэш id существующих пользователей. Кэш свой у каждого экземпляра сервера: удаление пользователя сбрасывает
+     * только кэш экземпляра, выполнившего удаление, а остальные считают пользователя существующим до истечения
+     * {@code shareit.cache.users.expire-after-write}.
+     */
+    @Bean
+    public Cache<Long, Boolean> existingUsersCache(@Value("${shareit.cache.users.maximum-size}") long maximumSize,
+                                                   @Value("${shareit.cache.users.expire-after-write}")
+                                                   Duration expireAfterWrite,
+                                                   MeterRegistry meterRegistry) {
+        Cache<Long, Boolean> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+}
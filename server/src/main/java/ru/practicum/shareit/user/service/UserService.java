@@ -1,5 +1,7 @@
 package ru.practicum.shareit.user.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.annotation.Timed;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -8,6 +10,9 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.service.ItemOwnerViewService;
 import ru.practicum.shareit.user.dto.UserCreatorDto;
 import ru.practicum.shareit.user.dto.UserResponseDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
@@ -17,18 +22,23 @@ import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Timed(value = "shareit.service", histogram = true)
 @Slf4j
 @RequiredArgsConstructor
 public class UserService {
 
     UserRepository repository;
     UserMapper mapper;
+    Cache<Long, Boolean> existingUsers;
+    ItemOwnerViewService ownerViewService;
 
     @Transactional(readOnly = true)
     public List<UserResponseDto> getAll(int from, int size) {
@@ -44,6 +54,14 @@ public class UserService {
         return mapper.userToUserResponseDto(result);
     }
 
+    @Transactional(readOnly = true)
+    public List<UserResponseDto> getByIds(Collection<Long> ids) {
+        return repository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(User::getId))
+                .map(mapper::userToUserResponseDto)
+                .collect(Collectors.toList());
+    }
+
     public User getUser(long id) {
         Optional<User> user = repository.findById(id);
         if (user.isEmpty()) {
@@ -52,6 +70,14 @@ public class UserService {
         return user.get();
     }
 
+    public void checkUserExists(long id) {
+        // сброс ключа ждет его загрузку, поэтому ответ, прочитанный до удаления пользователя, не переживет сброс
+        Boolean exists = existingUsers.get(id, key -> repository.existsById(key) ? Boolean.TRUE : null);
+        if (exists == null) {
+            throw new UserNotFoundException(String.format("Пользователь с id = %d не найден", id));
+        }
+    }
+
     public void getByEmail(String email) {
         User user = repository.findByEmailContainingIgnoreCase(email);
         if (user != null) {
@@ -63,6 +89,7 @@ public class UserService {
     public UserResponseDto createUser(UserCreatorDto dto) {
         User user = mapper.userCreatorDtoToUser(dto);
         User created = repository.save(user);
+        afterCommit(() -> existingUsers.put(created.getId(), Boolean.TRUE));
         return mapper.userToUserResponseDto(created);
     }
 
@@ -73,8 +100,9 @@ public class UserService {
             getByEmail(dto.getEmail());
             user.setEmail(dto.getEmail());
         }
-        if (dto.getName() != null) {
+        if (dto.getName() != null && !dto.getName().equals(user.getName())) {
             user.setName(dto.getName());
+            ownerViewService.authorRenamed(id);
         }
         User updated = repository.save(user);
         return mapper.userToUserResponseDto(updated);
@@ -83,5 +111,23 @@ public class UserService {
     @Transactional
     public void deleteUser(long id) {
         repository.deleteById(id);
+        afterCommit(() -> existingUsers.invalidate(id));
+    }
+
+    /**
+     * Кэш существующих пользователей меняется только после коммита: до него другие транзакции видят прежние
+     * данные и могут снова положить их в кэш.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
@@ -1,10 +1,3 @@
-
-DROP TABLE IF EXISTS users cascade ;
-DROP TABLE IF EXISTS comments cascade ;
-DROP TABLE IF EXISTS items cascade ;
-DROP TABLE IF EXISTS requests cascade ;
-DROP TABLE IF EXISTS booking cascade ;
-
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY NOT NULL,
     name VARCHAR(255) NOT NULL,
@@ -43,5 +36,3 @@ CREATE TABLE IF NOT EXISTS comments (
     author_id BIGINT NOT NULL REFERENCES users (id),
     created TIMESTAMP NOT NULL
 );
-
-
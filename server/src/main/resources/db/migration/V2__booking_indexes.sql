@@ -0,0 +1,13 @@
+CREATE INDEX IF NOT EXISTS idx_booking_booker_start ON booking (booker_id, start_booking, id, status, end_booking);
+
+CREATE INDEX IF NOT EXISTS idx_booking_item_start ON booking (item_id, start_booking, id, status, end_booking);
+
+CREATE INDEX IF NOT EXISTS idx_booking_item_end ON booking (item_id, end_booking);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner, id);
+
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_creator ON requests (creator, created);
@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS item_owner_view (
+    item_id BIGINT PRIMARY KEY NOT NULL REFERENCES items (id) ON DELETE CASCADE,
+    comments TEXT NOT NULL,
+    last_booking TEXT,
+    next_booking TEXT,
+    refresh_at TIMESTAMP
+);
+
+INSERT INTO item_owner_view (item_id, comments, refresh_at)
+SELECT id, '[]', TIMESTAMP '1970-01-01 00:00:00' FROM items;
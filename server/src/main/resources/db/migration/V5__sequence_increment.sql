@@ -0,0 +1,3 @@
+ALTER SEQUENCE items_seq INCREMENT BY 1000;
+
+ALTER SEQUENCE booking_seq INCREMENT BY 1000;
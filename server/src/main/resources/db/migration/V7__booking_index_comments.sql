@@ -0,0 +1,5 @@
+COMMENT ON INDEX idx_booking_booker_start IS 'Бронирования пользователя: booker_id и start_booking, id отдают их в порядке start desc, id desc без сортировки и продолжают выборку с курсора (start, id); status и end_booking фильтруются по индексу без чтения таблицы. Внешние ключи PostgreSQL не индексирует, поэтому список бронирований пользователя идет только через этот индекс';
+
+COMMENT ON INDEX idx_booking_item_start IS 'Бронирования вещей владельца и следующее бронирование вещи: item_id и start_booking, id дают тот же порядок и курсор, что и idx_booking_booker_start, для каждой вещи владельца; первое бронирование с start_booking после текущего момента находится поиском по индексу, а status и end_booking (текущие бронирования) проверяются без чтения таблицы';
+
+COMMENT ON INDEX idx_booking_item_end IS 'Последнее бронирование вещи: наибольший end_booking до текущего момента для item_id находится поиском по индексу';
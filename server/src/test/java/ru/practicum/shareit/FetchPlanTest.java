@@ -0,0 +1,147 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.BookStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.supplier.ObjectSupplier;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Число SQL-запросов и загруженных из базы сущностей для чтений, которые работают с сущностями, а не с проекциями.
+ * Кэш второго уровня перед замером очищается, поэтому учитываются все строки, которые пришлось прочитать.
+ */
+@SpringBootTest
+public class FetchPlanTest {
+
+    private static final int AUTHORS = 3;
+
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    ItemRequestService itemRequestService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    ItemRequestRepository requestRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    User owner;
+    Item item;
+    Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(ObjectSupplier.getUser("owner"));
+        LocalDateTime now = LocalDateTime.now();
+        List<User> authors = new ArrayList<>();
+        for (int i = 0; i < AUTHORS; i++) {
+            User author = userRepository.save(ObjectSupplier.getUser("author" + i));
+            authors.add(author);
+            ItemRequest request = new ItemRequest();
+            request.setDescription("Нужна дрель");
+            request.setCreated(now.minusDays(i + 1));
+            request.setCreator(author);
+            requestRepository.save(request);
+
+            item = ObjectSupplier.getItem(owner, "Дрель " + i);
+            item.setRequest(request);
+            itemRepository.save(item);
+        }
+        for (User author : authors) {
+            booking = bookingRepository.save(ObjectSupplier.getBooking(item, author, now.minusDays(2),
+                    now.minusDays(1), BookStatus.APPROVED));
+            commentRepository.save(ObjectSupplier.getComment(item, author, now));
+        }
+        bookingRepository.save(ObjectSupplier.getBooking(item, authors.get(0), now.plusDays(1), now.plusDays(2),
+                BookStatus.APPROVED));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ObjectSupplier.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void getBookingByIdTest() {
+        Counts counts = measure(() -> bookingService.getBookingById(owner.getId(), booking.getId()));
+
+        // бронирование, вещь и арендатор одним запросом, без запроса вещи и его автора
+        assertThat(counts.statements).isEqualTo(1);
+        assertThat(counts.entities).isEqualTo(3);
+    }
+
+    @Test
+    void getItemByIdTest() {
+        Counts counts = measure(() -> itemService.getById(item.getId(), owner.getId()));
+
+        // вещь, отзывы с авторами, последнее и следующее бронирование без вещи и арендатора
+        assertThat(counts.statements).isEqualTo(4);
+        assertThat(counts.entities).isEqualTo(1 + 2 * AUTHORS + 2);
+    }
+
+    @Test
+    void getAllRequestsTest() {
+        Counts counts = measure(() -> itemRequestService.getAll(owner.getId(), 0, 10));
+
+        // пользователь, страница запросов и вещи к ним без авторов запросов
+        assertThat(counts.statements).isEqualTo(3);
+        assertThat(counts.entities).isEqualTo(1 + 2 * AUTHORS);
+    }
+
+    private Counts measure(Supplier<?> call) {
+        // первый вызов заполняет кэш существующих пользователей и не учитывается
+        call.get();
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        call.get();
+        return new Counts(statistics.getPrepareStatementCount(), statistics.getEntityLoadCount());
+    }
+
+    private static class Counts {
+        final long statements;
+        final long entities;
+
+        Counts(long statements, long entities) {
+            this.statements = statements;
+            this.entities = entities;
+        }
+    }
+}
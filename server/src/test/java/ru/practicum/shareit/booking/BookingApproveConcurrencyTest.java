@@ -0,0 +1,111 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.exceptions.BookingStatusConflictException;
+import ru.practicum.shareit.booking.exceptions.NotUpdatedStatusException;
+import ru.practicum.shareit.booking.model.BookStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.supplier.ObjectSupplier;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Одновременные подтверждения и отклонения одного бронирования: выигрывает ровно один запрос,
+ * остальные получают конфликт или сообщение, что статус уже установлен.
+ */
+@SpringBootTest
+public class BookingApproveConcurrencyTest {
+
+    private static final int BOOKINGS = 20;
+    private static final int THREADS = 8;
+
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    User owner;
+    List<Long> bookingIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(ObjectSupplier.getUser("owner"));
+        User booker = userRepository.save(ObjectSupplier.getUser("booker"));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Item item = itemRepository.save(ObjectSupplier.getItem(owner, "Дрель " + i));
+            Booking booking = ObjectSupplier.getBooking(item, booker, start, start.plusDays(1), BookStatus.WAITING);
+            bookingIds.add(bookingRepository.save(booking).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        ObjectSupplier.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void concurrentApproveAndRejectTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Long bookingId : bookingIds) {
+                CountDownLatch startGate = new CountDownLatch(1);
+                List<Future<BookingResponseDto>> results = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    boolean approved = i % 2 == 0;
+                    Callable<BookingResponseDto> call = () -> {
+                        startGate.await();
+                        return bookingService.approveBooking(owner.getId(), bookingId, approved);
+                    };
+                    results.add(executor.submit(call));
+                }
+                startGate.countDown();
+
+                List<BookingResponseDto> winners = new ArrayList<>();
+                for (Future<BookingResponseDto> result : results) {
+                    try {
+                        winners.add(result.get(10, TimeUnit.SECONDS));
+                    } catch (ExecutionException e) {
+                        assertThat(e.getCause()).isInstanceOfAny(BookingStatusConflictException.class,
+                                NotUpdatedStatusException.class);
+                    }
+                }
+
+                assertThat(winners).hasSize(1);
+                assertThat(bookingRepository.findById(bookingId).orElseThrow().getStatus())
+                        .isEqualTo(winners.get(0).getStatus());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -11,8 +11,10 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.exceptions.BookingNotFoundException;
+import ru.practicum.shareit.booking.exceptions.IncorrectCursorException;
 import ru.practicum.shareit.booking.exceptions.NotUpdatedStatusException;
 import ru.practicum.shareit.booking.model.BookStatus;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -25,8 +27,11 @@ import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -39,6 +44,7 @@ public class BookingControllerTest {
     private static final  String ID_PATH = "/{bookingId}";
     private static final  String OWNER_PATH = "/owner";
     private static final String APPROVED_TRUE = "?approved=true";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     @MockBean
     BookingService service;
 
@@ -83,6 +89,23 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.end", is(responseDto.getEnd().toString())));
     }
 
+    @Test
+    void createBookingsTest() throws Exception {
+        when(service.createBookings(any(Long.class), anyList()))
+                .thenReturn(List.of(responseDto));
+
+        mvc.perform(post(SOURCE_PATH + "/bulk")
+                        .content(mapper.writeValueAsString(List.of(creationDto)))
+                        .header(USER_HEADER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(responseDto.getId()), Long.class))
+                .andExpect(jsonPath("$[0].status", is(responseDto.getStatus().toString())));
+    }
+
     @Test
     void approveBookingTest() throws Exception {
         responseDto.setStatus(BookStatus.APPROVED);
@@ -126,6 +149,22 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.end", is(responseDto.getEnd().toString())));
     }
 
+    @Test
+    void getBookingsByIdsTest() throws Exception {
+        when(service.getBookingsByIds(any(Long.class), any()))
+                .thenReturn(List.of(responseDto));
+
+        mvc.perform(get(SOURCE_PATH + "?ids=1,2")
+                        .header(USER_HEADER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(responseDto.getId()), Long.class));
+        verify(service).getBookingsByIds(1L, List.of(1L, 2L));
+    }
+
     @Test
     void getUserBookingsTest() throws Exception {
         when(service.getBookingsByOwner(any(Long.class), any(String.class), any(Integer.class), any(Integer.class)))
@@ -148,6 +187,67 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[0].end", is(responseDto.getEnd().toString())));
     }
 
+    @Test
+    void getUserBookingsWithCursorTest() throws Exception {
+        String cursor = BookingCursor.of(responseDto).encode();
+        when(service.getBookingsByUserAfter(any(Long.class), any(String.class), any(String.class), any(Integer.class)))
+                .thenReturn(List.of(responseDto));
+
+        mvc.perform(get(SOURCE_PATH + "?state=ALL&from=0&size=1&cursor=" + cursor)
+                        .header(USER_HEADER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR_HEADER, cursor))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(responseDto.getId()), Long.class));
+        verify(service).getBookingsByUserAfter(1L, "ALL", cursor, 1);
+    }
+
+    @Test
+    void getOwnerBookingsWithEmptyCursorTest() throws Exception {
+        when(service.getBookingsByOwner(any(Long.class), any(String.class), any(Integer.class), any(Integer.class)))
+                .thenReturn(List.of(responseDto));
+
+        mvc.perform(get(SOURCE_PATH + OWNER_PATH + "?state=ALL&from=5&size=1&cursor=")
+                        .header(USER_HEADER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR_HEADER, BookingCursor.of(responseDto).encode()))
+                .andExpect(jsonPath("$", hasSize(1)));
+        verify(service).getBookingsByOwner(1L, "ALL", 0, 1);
+    }
+
+    @Test
+    void getOwnerBookingsLastPageWithoutCursorTest() throws Exception {
+        when(service.getBookingsByOwner(any(Long.class), any(String.class), any(Integer.class), any(Integer.class)))
+                .thenReturn(List.of(responseDto));
+
+        mvc.perform(get(SOURCE_PATH + OWNER_PATH + "?state=ALL&from=0&size=10")
+                        .header(USER_HEADER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getIncorrectCursorExceptionTest() throws Exception {
+        when(service.getBookingsByOwnerAfter(any(Long.class), any(String.class), any(String.class), any(Integer.class)))
+                .thenThrow(IncorrectCursorException.class);
+
+        mvc.perform(get(SOURCE_PATH + OWNER_PATH + "?state=ALL&from=0&size=10&cursor=broken")
+                        .header(USER_HEADER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getMissingRequestHeaderExceptionTest() throws Exception {
         mvc.perform(get(SOURCE_PATH + OWNER_PATH)
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.BookStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.metrics.QueryCounter;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет планы запросов, которые Hibernate строит для методов {@link BookingRepository}: текст запроса
+ * перехватывается через {@link QueryCounter} и передается в {@code EXPLAIN} без изменений.
+ * <p>
+ * H2, в отличие от PostgreSQL, сама индексирует внешние ключи и для списков бронирований пользователя и владельца
+ * выбирает эти индексы, поэтому для них проверяется только отсутствие полного просмотра таблицы. Почему индексы
+ * из {@code V2__booking_indexes.sql} устроены именно так, записано в комментариях к ним
+ * ({@code V7__booking_index_comments.sql}).
+ */
+@SpringBootTest
+public class BookingQueryPlanTest {
+
+    private static final String TABLE_SCAN = "tableScan";
+    private static final String ITEM_START_INDEX = "IDX_BOOKING_ITEM_START";
+    private static final String ITEM_END_INDEX = "IDX_BOOKING_ITEM_END";
+    private static final Set<BookStatus> STATUSES = EnumSet.allOf(BookStatus.class);
+    private static final Pageable PAGE = PageRequest.of(0, 10);
+
+    @Autowired
+    BookingRepository repository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void bookerStateQueriesUseIndexTest() {
+        assertIndexScan(() -> repository.findBookerBookings(1L, STATUSES, PAGE));
+        assertIndexScan(() -> repository.findBookerPastBookings(1L, STATUSES, now, PAGE));
+        assertIndexScan(() -> repository.findBookerFutureBookings(1L, STATUSES, now, PAGE));
+        assertIndexScan(() -> repository.findBookerCurrentBookings(1L, STATUSES, now, PAGE));
+        assertIndexScan(() -> repository.findBookerBookingsAfter(1L, STATUSES, now, 100L, PAGE));
+        assertIndexScan(() -> repository.findBookerPastBookingsAfter(1L, STATUSES, now, now, 100L, PAGE));
+    }
+
+    @Test
+    void ownerStateQueriesUseIndexTest() {
+        assertIndexScan(() -> repository.findOwnerBookings(1L, STATUSES, PAGE));
+        assertIndexScan(() -> repository.findOwnerPastBookings(1L, STATUSES, now, PAGE));
+        assertIndexScan(() -> repository.findOwnerFutureBookings(1L, STATUSES, now, PAGE));
+        assertIndexScan(() -> repository.findOwnerCurrentBookings(1L, STATUSES, now, PAGE));
+        assertIndexScan(() -> repository.findOwnerBookingsAfter(1L, STATUSES, now, 100L, PAGE));
+        assertIndexScan(() -> repository.findOwnerPastBookingsAfter(1L, STATUSES, now, now, 100L, PAGE));
+    }
+
+    @Test
+    void itemBookingQueriesUseIndexTest() {
+        List<Long> itemIds = List.of(1L, 2L);
+        assertIndexScan(() -> repository.findLastBookingsByItemIds(itemIds, now), ITEM_END_INDEX);
+        assertIndexScan(() -> repository.findNextBookingsByItemIds(itemIds, now), ITEM_START_INDEX);
+        assertIndexScan(() -> repository.findCurrentBookingEnds(itemIds, now), ITEM_START_INDEX);
+        assertIndexScan(() -> repository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(1L,
+                EnumSet.of(BookStatus.APPROVED, BookStatus.WAITING), now, now));
+    }
+
+    private void assertIndexScan(Runnable query, String... indexes) {
+        String sql = captureSql(query);
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                // план H2 не зависит от значений параметров
+                for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet result = statement.executeQuery()) {
+                    result.next();
+                    return result.getString(1);
+                }
+            }
+        });
+        assertThat(plan).as(sql).doesNotContain(TABLE_SCAN);
+        for (String index : indexes) {
+            assertThat(plan).as(sql).contains("PUBLIC." + index);
+        }
+    }
+
+    private static String captureSql(Runnable query) {
+        try (QueryCounter counter = QueryCounter.open()) {
+            query.run();
+            assertThat(counter.getStatements()).hasSize(1);
+            return counter.getStatements().keySet().iterator().next();
+        }
+    }
+}
@@ -2,10 +2,15 @@ package ru.practicum.shareit.booking;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.exceptions.BookingNotFoundException;
+import ru.practicum.shareit.booking.exceptions.BookingOverlapException;
+import ru.practicum.shareit.booking.exceptions.BookingStatusConflictException;
+import ru.practicum.shareit.booking.exceptions.IncorrectCursorException;
 import ru.practicum.shareit.booking.exceptions.NotUpdatedStatusException;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
@@ -18,6 +23,7 @@ import ru.practicum.shareit.item.exceptions.ItemNotAvailableException;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.item.mapper.ItemMapperImpl;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemOwnerViewService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.supplier.ObjectSupplier;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
@@ -25,6 +31,7 @@ import ru.practicum.shareit.user.mapper.UserMapperImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,7 +40,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class BookingServiceTest {
@@ -42,6 +52,7 @@ public class BookingServiceTest {
     BookingRepository bookingRepo;
     ItemServiceImpl itemService;
     UserService userService;
+    ItemOwnerViewService ownerViewService;
     BookingMapper mapper;
     BookingCreationDto bookingCreationDto;
     User user;
@@ -53,8 +64,9 @@ public class BookingServiceTest {
         bookingRepo = mock(BookingRepository.class);
         itemService = mock(ItemServiceImpl.class);
         userService = mock(UserService.class);
+        ownerViewService = mock(ItemOwnerViewService.class);
         mapper = new BookingMapperImpl(new UserMapperImpl(), new ItemMapperImpl());
-        bookingService = new BookingService(bookingRepo, itemService, userService, mapper);
+        bookingService = new BookingService(bookingRepo, itemService, userService, mapper, ownerViewService);
         bookingCreationDto = ObjectSupplier.getDefaultBookingCreateDto();
         user = ObjectSupplier.getDefaultUser();
         item = ObjectSupplier.getDefaultItem();
@@ -67,7 +79,7 @@ public class BookingServiceTest {
         userLocal.setId(2L);
         when(userService.getUser(anyLong()))
                 .thenReturn(userLocal);
-        when(itemService.getItem(anyLong()))
+        when(itemService.lockItem(anyLong()))
                 .thenReturn(item);
         when(bookingRepo.save(any(Booking.class)))
                 .thenReturn(booking);
@@ -77,6 +89,85 @@ public class BookingServiceTest {
         assertEquals(result.getStatus(), BookStatus.WAITING);
     }
 
+    @Test
+    void createOverlappingBookingTest() {
+        User userLocal = ObjectSupplier.getDefaultUser();
+        userLocal.setId(2L);
+        when(userService.getUser(anyLong()))
+                .thenReturn(userLocal);
+        when(itemService.lockItem(anyLong()))
+                .thenReturn(item);
+        when(bookingRepo.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(anyLong(), any(), any(), any()))
+                .thenReturn(true);
+
+        assertThatThrownBy(() -> bookingService.createBooking(userLocal.getId(), bookingCreationDto))
+                .isInstanceOf(BookingOverlapException.class);
+        verify(bookingRepo).existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(item.getId(),
+                List.of(BookStatus.APPROVED, BookStatus.WAITING), bookingCreationDto.getEnd(),
+                bookingCreationDto.getStart());
+        verify(bookingRepo, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createBookingsTest() {
+        User userLocal = ObjectSupplier.getDefaultUser();
+        userLocal.setId(2L);
+        BookingCreationDto next = ObjectSupplier.getDefaultBookingCreateDto();
+        next.setStart(bookingCreationDto.getEnd());
+        next.setEnd(bookingCreationDto.getEnd().plusDays(1));
+        when(userService.getUser(anyLong()))
+                .thenReturn(userLocal);
+        when(itemService.lockItems(any()))
+                .thenReturn(List.of(item));
+        when(bookingRepo.findPeriodsByItemIds(any(), any()))
+                .thenReturn(List.of(new BookingPeriod(item.getId(), bookingCreationDto.getStart().minusDays(2),
+                        bookingCreationDto.getStart())));
+        when(bookingRepo.saveAll(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BookingResponseDto> result = bookingService.createBookings(userLocal.getId(),
+                List.of(bookingCreationDto, next));
+
+        assertEquals(2, result.size());
+        assertEquals(bookingCreationDto.getStart(), result.get(0).getStart());
+        assertEquals(next.getStart(), result.get(1).getStart());
+        verify(itemService).lockItems(List.of(item.getId()));
+    }
+
+    @Test
+    void createBookingsOverlappingInBatchTest() {
+        User userLocal = ObjectSupplier.getDefaultUser();
+        userLocal.setId(2L);
+        BookingCreationDto overlapping = ObjectSupplier.getDefaultBookingCreateDto();
+        overlapping.setStart(bookingCreationDto.getStart().plusHours(1));
+        when(userService.getUser(anyLong()))
+                .thenReturn(userLocal);
+        when(itemService.lockItems(any()))
+                .thenReturn(List.of(item));
+
+        assertThatThrownBy(() -> bookingService.createBookings(userLocal.getId(),
+                List.of(bookingCreationDto, overlapping)))
+                .isInstanceOf(BookingOverlapException.class);
+        verify(bookingRepo, never()).saveAll(any());
+    }
+
+    @Test
+    void createBookingsWithUnknownItemTest() {
+        User userLocal = ObjectSupplier.getDefaultUser();
+        userLocal.setId(2L);
+        BookingCreationDto unknown = ObjectSupplier.getDefaultBookingCreateDto();
+        unknown.setItemId(99L);
+        when(userService.getUser(anyLong()))
+                .thenReturn(userLocal);
+        when(itemService.lockItems(any()))
+                .thenReturn(List.of(item));
+
+        assertThatThrownBy(() -> bookingService.createBookings(userLocal.getId(), List.of(bookingCreationDto, unknown)))
+                .isInstanceOf(ItemNotFoundException.class)
+                .message().isEqualTo("Вещи c id = 99 не найдено");
+        verify(bookingRepo, never()).saveAll(any());
+    }
+
     private void checkResult(BookingResponseDto result) {
         assertNotNull(result);
         assertEquals(result.getId(), booking.getId());
@@ -92,14 +183,42 @@ public class BookingServiceTest {
                 .thenReturn(item);
         when(bookingRepo.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(booking));
-        Booking savedBooking = ObjectSupplier.getDefaultBooking();
-        savedBooking.setStatus(BookStatus.APPROVED);
-        when(bookingRepo.save(any(Booking.class)))
-                .thenReturn(savedBooking);
+        when(bookingRepo.updateStatus(booking.getId(), BookStatus.WAITING, BookStatus.APPROVED))
+                .thenReturn(1);
         BookingResponseDto result = bookingService.approveBooking(item.getOwner(), booking.getId(), true);
 
         checkResult(result);
         assertEquals(result.getStatus(), BookStatus.APPROVED);
+        verify(bookingRepo, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void approveBookingConflictTest() {
+        when(itemService.getItem(anyLong()))
+                .thenReturn(item);
+        when(bookingRepo.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(booking));
+        when(bookingRepo.updateStatus(booking.getId(), BookStatus.WAITING, BookStatus.REJECTED))
+                .thenReturn(0);
+
+        assertThatThrownBy(() -> bookingService.approveBooking(item.getOwner(), booking.getId(), false))
+                .isInstanceOf(BookingStatusConflictException.class)
+                .message().isEqualTo(String.format("Решение по бронированию с id = %d уже принято",
+                        booking.getId()));
+        verify(ownerViewService, never()).bookingChanged(anyLong());
+    }
+
+    @Test
+    void changeDecisionConflictTest() {
+        when(itemService.getItem(anyLong()))
+                .thenReturn(item);
+        booking.setStatus(BookStatus.APPROVED);
+        when(bookingRepo.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(booking));
+
+        assertThatThrownBy(() -> bookingService.approveBooking(item.getOwner(), booking.getId(), false))
+                .isInstanceOf(BookingStatusConflictException.class);
+        verify(bookingRepo, never()).updateStatus(anyLong(), any(BookStatus.class), any(BookStatus.class));
     }
 
     @Test
@@ -113,12 +232,23 @@ public class BookingServiceTest {
         assertEquals(result.getStatus(), booking.getStatus());
     }
 
+    @Test
+    void getBookingsByIdsTest() {
+        when(bookingRepo.findVisibleBookings(any(), anyLong()))
+                .thenReturn(List.of(ObjectSupplier.getBookingView(booking)));
+
+        List<BookingResponseDto> result = bookingService.getBookingsByIds(user.getId(), List.of(booking.getId(), 99L));
+
+        checkResultList(result);
+        verify(bookingRepo).findVisibleBookings(List.of(booking.getId(), 99L), user.getId());
+    }
+
     @Test
     void getAllBookingsByUserTest() {
         when(userService.getUser(anyLong()))
                 .thenReturn(user);
-        when(bookingRepo.findAllByBookerIdAndStatusInOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepo.findBookerBookings(any(), any(), any()))
+                .thenReturn(List.of(ObjectSupplier.getBookingView(booking)));
 
         List<BookingResponseDto> result = bookingService.getBookingsByUser(user.getId(), "ALL", 0, 10);
 
@@ -131,8 +261,8 @@ public class BookingServiceTest {
         booking.setStatus(BookStatus.APPROVED);
         when(userService.getUser(anyLong()))
                 .thenReturn(user);
-        when(bookingRepo.findAllByBookerIdAndStatusInAndEndIsBeforeOrderByStartDesc(any(), any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepo.findBookerPastBookings(any(), any(), any(), any()))
+                .thenReturn(List.of(ObjectSupplier.getBookingView(booking)));
 
         List<BookingResponseDto> result = bookingService.getBookingsByUser(user.getId(), "PAST", 0, 10);
 
@@ -144,8 +274,8 @@ public class BookingServiceTest {
     void getFutureBookingsByUserTest() {
         when(userService.getUser(anyLong()))
                 .thenReturn(user);
-        when(bookingRepo.findAllByBookerIdAndStatusInAndStartIsAfterOrderByStartDesc(any(), any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepo.findBookerFutureBookings(any(), any(), any(), any()))
+                .thenReturn(List.of(ObjectSupplier.getBookingView(booking)));
 
         List<BookingResponseDto> result = bookingService.getBookingsByUser(user.getId(), "FUTURE", 0, 10);
 
@@ -158,9 +288,8 @@ public class BookingServiceTest {
         booking.setStatus(BookStatus.APPROVED);
         when(userService.getUser(anyLong()))
                 .thenReturn(user);
-        when(bookingRepo.findAllByBookerIdAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartDesc(any(), any(), any(),
-                any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepo.findBookerCurrentBookings(any(), any(), any(), any()))
+                .thenReturn(List.of(ObjectSupplier.getBookingView(booking)));
 
         List<BookingResponseDto> result = bookingService.getBookingsByUser(user.getId(), "CURRENT", 0, 10);
 
@@ -172,8 +301,8 @@ public class BookingServiceTest {
     void getWaitingBookingsByUserTest() {
         when(userService.getUser(anyLong()))
                 .thenReturn(user);
-        when(bookingRepo.findAllByBookerIdAndStatusInOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepo.findBookerBookings(any(), any(), any()))
+                .thenReturn(List.of(ObjectSupplier.getBookingView(booking)));
 
         List<BookingResponseDto> result = bookingService.getBookingsByUser(user.getId(), "WAITING",
                 0, 10);
@@ -187,8 +316,8 @@ public class BookingServiceTest {
         booking.setStatus(BookStatus.REJECTED);
         when(userService.getUser(anyLong()))
                 .thenReturn(user);
-        when(bookingRepo.findAllByBookerIdAndStatusInOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepo.findBookerBookings(any(), any(), any()))
+                .thenReturn(List.of(ObjectSupplier.getBookingView(booking)));
 
         List<BookingResponseDto> result = bookingService.getBookingsByUser(user.getId(), "REJECTED",
                 0, 10);
@@ -201,8 +330,8 @@ public class BookingServiceTest {
     void getAllBookingsByOwnerTest() {
         when(userService.getUser(anyLong()))
                 .thenReturn(user);
-        when(bookingRepo.findAllByItem_OwnerAndStatusInOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepo.findOwnerBookings(any(), any(), any()))
+                .thenReturn(List.of(ObjectSupplier.getBookingView(booking)));
 
         List<BookingResponseDto> result = bookingService.getBookingsByOwner(user.getId(), "ALL",
                 0, 10);
@@ -216,8 +345,8 @@ public class BookingServiceTest {
         booking.setStatus(BookStatus.APPROVED);
         when(userService.getUser(anyLong()))
                 .thenReturn(user);
-        when(bookingRepo.findAllByItem_OwnerAndStatusInAndEndIsBeforeOrderByStartDesc(any(), any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepo.findOwnerPastBookings(any(), any(), any(), any()))
+                .thenReturn(List.of(ObjectSupplier.getBookingView(booking)));
 
         List<BookingResponseDto> result = bookingService.getBookingsByOwner(user.getId(), "PAST",
                 0, 10);
@@ -230,8 +359,8 @@ public class BookingServiceTest {
     void getFutureBookingsByOwnerTest() {
         when(userService.getUser(anyLong()))
                 .thenReturn(user);
-        when(bookingRepo.findAllByItem_OwnerAndStatusInAndStartIsAfterOrderByStartDesc(any(), any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepo.findOwnerFutureBookings(any(), any(), any(), any()))
+                .thenReturn(List.of(ObjectSupplier.getBookingView(booking)));
 
         List<BookingResponseDto> result = bookingService.getBookingsByOwner(user.getId(), "FUTURE",
                 0, 10);
@@ -245,9 +374,8 @@ public class BookingServiceTest {
         booking.setStatus(BookStatus.APPROVED);
         when(userService.getUser(anyLong()))
                 .thenReturn(user);
-        when(bookingRepo.findAllByItem_OwnerAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartDesc(any(), any(),
-                any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepo.findOwnerCurrentBookings(any(), any(), any(), any()))
+                .thenReturn(List.of(ObjectSupplier.getBookingView(booking)));
 
         List<BookingResponseDto> result = bookingService.getBookingsByOwner(user.getId(), "CURRENT",
                 0, 10);
@@ -260,8 +388,8 @@ public class BookingServiceTest {
     void getWaitingBookingsByOwnerTest() {
         when(userService.getUser(anyLong()))
                 .thenReturn(user);
-        when(bookingRepo.findAllByItem_OwnerAndStatusInOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepo.findOwnerBookings(any(), any(), any()))
+                .thenReturn(List.of(ObjectSupplier.getBookingView(booking)));
 
         List<BookingResponseDto> result = bookingService.getBookingsByOwner(user.getId(), "WAITING",
                 0, 10);
@@ -275,8 +403,8 @@ public class BookingServiceTest {
         booking.setStatus(BookStatus.REJECTED);
         when(userService.getUser(anyLong()))
                 .thenReturn(user);
-        when(bookingRepo.findAllByItem_OwnerAndStatusInOrderByStartDesc(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepo.findOwnerBookings(any(), any(), any()))
+                .thenReturn(List.of(ObjectSupplier.getBookingView(booking)));
 
         List<BookingResponseDto> result = bookingService.getBookingsByOwner(user.getId(), "REJECTED",
                 0, 10);
@@ -285,6 +413,46 @@ public class BookingServiceTest {
         assertEquals(result.get(0).getStatus(), BookStatus.REJECTED);
     }
 
+    @Test
+    void getBookingsByUserAfterCursorTest() {
+        booking.setStatus(BookStatus.APPROVED);
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2023, 4, 1, 10, 0), 15L);
+        when(userService.getUser(anyLong()))
+                .thenReturn(user);
+        when(bookingRepo.findBookerPastBookingsAfter(any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(ObjectSupplier.getBookingView(booking)));
+
+        List<BookingResponseDto> result = bookingService.getBookingsByUserAfter(user.getId(), "PAST",
+                cursor.encode(), 10);
+
+        checkResultList(result);
+        verify(bookingRepo).findBookerPastBookingsAfter(eq(user.getId()), eq(List.of(BookStatus.APPROVED)),
+                any(LocalDateTime.class), eq(cursor.getStart()), eq(cursor.getId()), eq(PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void getBookingsByOwnerAfterCursorTest() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2023, 4, 1, 10, 0), 15L);
+        when(userService.getUser(anyLong()))
+                .thenReturn(user);
+        when(bookingRepo.findOwnerBookingsAfter(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(ObjectSupplier.getBookingView(booking)));
+
+        List<BookingResponseDto> result = bookingService.getBookingsByOwnerAfter(user.getId(), "WAITING",
+                cursor.encode(), 10);
+
+        checkResultList(result);
+        verify(bookingRepo).findOwnerBookingsAfter(user.getId(), List.of(BookStatus.WAITING), cursor.getStart(),
+                cursor.getId(), PageRequest.of(0, 10));
+    }
+
+    @Test
+    void getBookingsByIncorrectCursorTest() {
+        assertThatThrownBy(() -> bookingService.getBookingsByUserAfter(user.getId(), "ALL", "broken", 10))
+                .isInstanceOf(IncorrectCursorException.class)
+                .message().isEqualTo("Некорректный курсор: broken");
+    }
+
     private void checkResultList(List<BookingResponseDto> result) {
         assertNotNull(result);
         assertEquals(result.size(), 1);
@@ -316,7 +484,7 @@ public class BookingServiceTest {
         when(userService.getUser(anyLong()))
                 .thenReturn(user);
         item.setOwner(user.getId());
-        when(itemService.getItem(anyLong()))
+        when(itemService.lockItem(anyLong()))
                 .thenReturn(item);
 
         assertThatThrownBy(() -> bookingService.createBooking(user.getId(), bookingCreationDto))
@@ -329,7 +497,7 @@ public class BookingServiceTest {
         when(userService.getUser(anyLong()))
                 .thenReturn(user);
         item.setAvailable(false);
-        when(itemService.getItem(anyLong()))
+        when(itemService.lockItem(anyLong()))
                 .thenReturn(item);
 
         assertThatThrownBy(() -> bookingService.createBooking(user.getId(), bookingCreationDto))
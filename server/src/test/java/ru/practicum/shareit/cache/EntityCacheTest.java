@@ -0,0 +1,102 @@
+package ru.practicum.shareit.cache;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestCreatorDto;
+import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.supplier.ObjectSupplier;
+import ru.practicum.shareit.user.dto.UserCreatorDto;
+import ru.practicum.shareit.user.dto.UserResponseDto;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+import ru.practicum.shareit.user.exceptions.UserNotFoundException;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class EntityCacheTest {
+
+    @Autowired
+    UserService userService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    ItemRequestService itemRequestService;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    Statistics statistics;
+    UserResponseDto user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        UserCreatorDto creator = new UserCreatorDto();
+        creator.setName("Кэшируемый");
+        creator.setEmail("cached@mail.ru");
+        user = userService.createUser(creator);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ObjectSupplier.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void userIsReadFromCacheAndInvalidatedOnUpdateAndDeleteTest() {
+        userService.getById(user.getId());
+        userService.getById(user.getId());
+
+        assertTrue(statistics.getDomainDataRegionStatistics("users").getHitCount() > 0);
+
+        UserUpdateDto update = new UserUpdateDto();
+        update.setName("Обновленный");
+        userService.updateUser(update, user.getId());
+        assertEquals("Обновленный", userService.getById(user.getId()).getName());
+
+        userService.deleteUser(user.getId());
+        assertThrows(UserNotFoundException.class, () -> userService.getById(user.getId()));
+    }
+
+    @Test
+    void itemsByRequestAreCachedAndInvalidatedOnItemChangesTest() {
+        ItemRequestCreatorDto requestDto = new ItemRequestCreatorDto();
+        requestDto.setDescription("Нужна дрель");
+        ItemRequestResponseDto request = itemRequestService.create(requestDto, user.getId());
+        ItemResponseDto item = itemService.createItem(ItemCreateDto.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .requestId(request.getId())
+                .build(), user.getId());
+
+        itemRequestService.getById(user.getId(), request.getId());
+        itemRequestService.getById(user.getId(), request.getId());
+        assertTrue(statistics.getQueryRegionStatistics("items-by-request").getHitCount() > 0);
+
+        itemService.updateItem(ItemUpdateDto.builder().name("Перфоратор").build(), user.getId(), item.getId());
+        assertEquals("Перфоратор",
+                itemRequestService.getById(user.getId(), request.getId()).getItems().get(0).getName());
+
+        itemService.deleteItem(item.getId(), user.getId());
+        assertTrue(itemRequestService.getById(user.getId(), request.getId()).getItems().isEmpty());
+    }
+}
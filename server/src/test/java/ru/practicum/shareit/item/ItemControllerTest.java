@@ -21,6 +21,7 @@ import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -83,6 +84,23 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(responseDto.getAvailable())));
     }
 
+    @Test
+    void createItemsTest() throws Exception {
+        when(service.createItems(anyList(), any(Long.class)))
+                .thenReturn(List.of(responseDto));
+
+        mvc.perform(post(SOURCE_PATH + "/bulk")
+                        .content(mapper.writeValueAsString(List.of(createDto)))
+                        .header(USER_HEADER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(responseDto.getId()), Long.class))
+                .andExpect(jsonPath("$[0].name", is(responseDto.getName())));
+    }
+
     @Test
     void getAllByUserTest() throws Exception {
         when(service.getAllByUserId(any(Long.class), any(Integer.class), any(Integer.class)))
@@ -120,6 +138,21 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.comments", is(notNullValue())));
     }
 
+    @Test
+    void getByIdsTest() throws Exception {
+        when(service.getByIds(List.of(1L, 2L), 1L))
+                .thenReturn(List.of(responseForOwner));
+
+        mvc.perform(get(SOURCE_PATH + "?ids=1,2")
+                        .header(USER_HEADER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(responseForOwner.getId()), Long.class));
+    }
+
     @Test
     void getByQueryTest() throws Exception {
         when(service.getByNameOrDescription(any(String.class), any(Long.class), any(Integer.class), any(Integer.class)))
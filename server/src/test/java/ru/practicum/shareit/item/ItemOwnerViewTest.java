@@ -0,0 +1,190 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.BookStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemResponseForOwner;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemOwnerViewService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.supplier.ObjectSupplier;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class ItemOwnerViewTest {
+
+    private static final int READERS = 4;
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    UserService userService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ItemOwnerViewService ownerViewService;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    User owner;
+    User booker;
+    Item item;
+    Booking pastBooking;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(ObjectSupplier.getUser("owner"));
+        booker = userRepository.save(ObjectSupplier.getUser("booker"));
+        item = itemRepository.save(ObjectSupplier.getItem(owner, "Дрель"));
+        pastBooking = bookingRepository.save(ObjectSupplier.getBooking(item, booker,
+                LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), BookStatus.APPROVED));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ObjectSupplier.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void viewFollowsBookingsAndCommentsTest() {
+        ItemResponseForOwner built = getOwnerItem();
+        assertEquals(pastBooking.getId(), built.getLastBooking().getId());
+        assertNull(built.getNextBooking());
+
+        BookingResponseDto booking = bookingService.createBooking(booker.getId(),
+                getBookingDto(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)));
+        assertEquals(BookStatus.WAITING, getOwnerItem().getNextBooking().getStatus());
+
+        bookingService.approveBooking(owner.getId(), booking.getId(), true);
+        ItemResponseForOwner approved = getOwnerItem();
+        assertEquals(booking.getId(), approved.getNextBooking().getId());
+        assertEquals(BookStatus.APPROVED, approved.getNextBooking().getStatus());
+
+        itemService.createComment(ObjectSupplier.getCommentCreateDto(), item.getId(), booker.getId());
+        assertEquals("booker", getOwnerItem().getComments().get(0).getAuthorName());
+
+        UserUpdateDto rename = new UserUpdateDto();
+        rename.setName("renamed");
+        userService.updateUser(rename, booker.getId());
+        assertEquals("renamed", getOwnerItem().getComments().get(0).getAuthorName());
+    }
+
+    @Test
+    void nextBookingRollsOverToLastTest() throws InterruptedException {
+        LocalDateTime start = LocalDateTime.now().plus(Duration.ofMillis(500));
+        BookingResponseDto booking = bookingService.createBooking(booker.getId(),
+                getBookingDto(start, start.plus(Duration.ofMillis(500))));
+        assertEquals(booking.getId(), getOwnerItem().getNextBooking().getId());
+
+        Thread.sleep(1500);
+
+        ItemResponseForOwner rolledOver = getOwnerItem();
+        assertEquals(booking.getId(), rolledOver.getLastBooking().getId());
+        assertNull(rolledOver.getNextBooking());
+    }
+
+    @Test
+    void tiedBookingsResolveToSmallestIdTest() {
+        LocalDateTime end = LocalDateTime.now().minusHours(1).withNano(0);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Booking> last = new ArrayList<>();
+        List<Booking> next = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            last.add(bookingRepository.save(ObjectSupplier.getBooking(item, booker, end.minusHours(1), end,
+                    BookStatus.APPROVED)));
+            next.add(bookingRepository.save(ObjectSupplier.getBooking(item, booker, start, start.plusHours(1),
+                    BookStatus.APPROVED)));
+        }
+        long lastId = last.stream().mapToLong(Booking::getId).min().orElseThrow();
+        long nextId = next.stream().mapToLong(Booking::getId).min().orElseThrow();
+
+        for (ItemResponseForOwner found : List.of(getOwnerItem(),
+                itemService.getById(item.getId(), owner.getId()),
+                itemService.getByIds(List.of(item.getId()), owner.getId()).get(0))) {
+            assertEquals(lastId, found.getLastBooking().getId());
+            assertEquals(nextId, found.getNextBooking().getId());
+        }
+    }
+
+    @Test
+    void readDoesNotCreateMissingViewTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+        try {
+            List<Future<ItemResponseForOwner>> reads = new ArrayList<>();
+            for (int i = 0; i < READERS; i++) {
+                reads.add(executor.submit(this::getOwnerItem));
+            }
+            for (Future<ItemResponseForOwner> read : reads) {
+                assertEquals(pastBooking.getId(), read.get(10, TimeUnit.SECONDS).getLastBooking().getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, JdbcTestUtils.countRowsInTable(jdbcTemplate, "item_owner_view"));
+    }
+
+    @Test
+    void expiredViewIsRebuiltAfterReadTest() throws InterruptedException {
+        transactionTemplate.executeWithoutResult(status -> ownerViewService.itemsImported());
+
+        assertEquals(pastBooking.getId(), getOwnerItem().getLastBooking().getId());
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (jdbcTemplate.queryForObject("select last_booking from item_owner_view where item_id = ?",
+                String.class, item.getId()) == null) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(20);
+        }
+        assertNull(jdbcTemplate.queryForObject("select refresh_at from item_owner_view where item_id = ?",
+                LocalDateTime.class, item.getId()));
+    }
+
+    private ItemResponseForOwner getOwnerItem() {
+        return itemService.getAllByUserId(owner.getId(), 0, 10).get(0);
+    }
+
+    private BookingCreationDto getBookingDto(LocalDateTime start, LocalDateTime end) {
+        BookingCreationDto dto = new BookingCreationDto();
+        dto.setItemId(item.getId());
+        dto.setStart(start);
+        dto.setEnd(end);
+        return dto;
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemOwnerViewService;
+import ru.practicum.shareit.metrics.QueryMetricsFilter;
+import ru.practicum.shareit.supplier.ObjectSupplier;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.metrics.diagnostics=true")
+@AutoConfigureMockMvc
+public class ItemQueryCountTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int ITEMS = 30;
+    private static final long TIMEOUT_MILLIS = 10_000;
+    private static final int MAX_STATEMENTS = 1;
+    private static final int BULK_ITEMS = 500;
+    // один запрос к последовательности на 1000 id и пакетные вставки вещей и записей витрины
+    private static final int MAX_BULK_STATEMENTS = (BULK_ITEMS + 999) / 1000 + 5;
+
+    @Autowired
+    MockMvc mvc;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    ItemOwnerViewService ownerViewService;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(ObjectSupplier.getUser("owner"));
+        User booker = userRepository.save(ObjectSupplier.getUser("booker"));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemRepository.save(ObjectSupplier.getItem(owner, "Дрель " + i));
+            bookingRepository.save(ObjectSupplier.getBooking(item, booker, now.minusDays(2), now.minusDays(1),
+                    BookStatus.APPROVED));
+            bookingRepository.save(ObjectSupplier.getBooking(item, booker, now.plusDays(1), now.plusDays(2),
+                    BookStatus.APPROVED));
+            commentRepository.save(ObjectSupplier.getComment(item, booker, now));
+        }
+        // вещи добавлены в обход сервиса, записи витрины для них создаются так же, как при загрузке таблицы
+        transactionTemplate.executeWithoutResult(status -> ownerViewService.itemsImported());
+    }
+
+    @AfterEach
+    void tearDown() {
+        ObjectSupplier.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void getAllByUserIdDoesNotDependOnPageSizeTest() throws Exception {
+        // записи витрины созданы устаревшими, первое чтение ставит их пересчет в очередь
+        countStatements("/items?from=0&size=" + ITEMS);
+        awaitViewsRefreshed();
+
+        int smallPage = countStatements("/items?from=0&size=5");
+        int fullPage = countStatements("/items?from=0&size=" + ITEMS);
+
+        assertThat(smallPage).isLessThanOrEqualTo(MAX_STATEMENTS);
+        assertThat(fullPage).isEqualTo(smallPage);
+    }
+
+    @Test
+    void createItemsIsBatchedTest() throws Exception {
+        List<ItemCreateDto> dtos = IntStream.range(0, BULK_ITEMS)
+                .mapToObj(i -> ItemCreateDto.builder()
+                        .name("Перфоратор " + i)
+                        .description("Мощный перфоратор")
+                        .available(true)
+                        .build())
+                .collect(Collectors.toList());
+
+        String header = mvc.perform(post("/items/bulk")
+                        .header(USER_HEADER, owner.getId())
+                        .content(objectMapper.writeValueAsString(dtos))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(BULK_ITEMS)))
+                .andReturn()
+                .getResponse()
+                .getHeader(QueryMetricsFilter.QUERY_COUNT_HEADER);
+
+        assertThat(header).isNotNull();
+        assertThat(Integer.parseInt(header)).isLessThanOrEqualTo(MAX_BULK_STATEMENTS);
+    }
+
+    private void awaitViewsRefreshed() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (countExpiredViews() > 0) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private int countExpiredViews() {
+        Integer expired = jdbcTemplate.queryForObject("select count(*) from item_owner_view where refresh_at <= ?",
+                Integer.class, LocalDateTime.now());
+        return expired == null ? 0 : expired;
+    }
+
+    private int countStatements(String uri) throws Exception {
+        String header = mvc.perform(get(uri).header(USER_HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(QueryMetricsFilter.QUERY_COUNT_HEADER);
+        assertThat(header).isNotNull();
+        return Integer.parseInt(header);
+    }
+}
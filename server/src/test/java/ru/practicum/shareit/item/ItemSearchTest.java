@@ -0,0 +1,73 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.supplier.ObjectSupplier;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class ItemSearchTest {
+
+    private static final Pageable PAGE = PageRequest.of(0, 10);
+
+    @Autowired
+    ItemRepository repository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(ObjectSupplier.getUser("owner"));
+        save(owner, "Дрель", "Простая дрель", true);
+        save(owner, "Скидка 50%", "Отвертка", true);
+        save(owner, "Ключ_10", "Гаечный ключ", true);
+        save(owner, "Пила", "Дрель в подарок", true);
+        save(owner, "Дрель ударная", "Сломана", false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ObjectSupplier.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void searchFindsNameFirstTest() {
+        assertThat(names(repository.searchAvailable("дРеЛь", PAGE))).containsExactly("Дрель", "Пила");
+    }
+
+    @Test
+    void searchEscapesWildcardsTest() {
+        assertThat(names(repository.searchAvailable("%", PAGE))).containsExactly("Скидка 50%");
+        assertThat(names(repository.searchAvailable("_", PAGE))).containsExactly("Ключ_10");
+        assertThat(names(repository.searchAvailable("\\", PAGE))).isEmpty();
+    }
+
+    private void save(User owner, String name, String description, boolean available) {
+        Item item = ObjectSupplier.getItem(owner, name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        repository.save(item);
+    }
+
+    private static List<String> names(List<Item> items) {
+        return items.stream()
+                .map(Item::getName)
+                .collect(Collectors.toList());
+    }
+}
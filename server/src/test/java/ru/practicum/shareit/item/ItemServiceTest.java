@@ -4,24 +4,29 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionOperations;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.CommentMapperImpl;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.mapper.ItemMapperImpl;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemOwnerView;
 import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemOwnerViewRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemOwnerViewService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.supplier.ObjectSupplier;
+import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 import ru.practicum.shareit.user.mapper.UserMapperImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
@@ -29,14 +34,16 @@ import ru.practicum.shareit.user.service.UserService;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 public class ItemServiceTest {
 
-    ItemService itemService;
+    ItemServiceImpl itemService;
     UserService userService;
     ItemRepository repository;
     ItemMapper mapper;
@@ -45,6 +52,8 @@ public class ItemServiceTest {
     CommentMapper commentMapper;
     BookingMapper bookingMapper;
     ItemRequestService itemRequestService;
+    ItemOwnerViewRepository viewRepository;
+    List<Runnable> refreshTasks;
     Item item;
     ItemCreateDto itemCreateDto;
 
@@ -55,26 +64,31 @@ public class ItemServiceTest {
         commentsRepository = mock(CommentRepository.class);
         bookingRepository = mock(BookingRepository.class);
         itemRequestService = mock(ItemRequestService.class);
+        viewRepository = mock(ItemOwnerViewRepository.class);
         mapper = new ItemMapperImpl();
         commentMapper = new CommentMapperImpl();
         bookingMapper = new BookingMapperImpl(new UserMapperImpl(), mapper);
+        refreshTasks = new ArrayList<>();
+        ItemOwnerViewService ownerViewService = new ItemOwnerViewService(repository, viewRepository,
+                commentsRepository, bookingRepository, mapper, commentMapper, bookingMapper, refreshTasks::add,
+                TransactionOperations.withoutTransaction());
         itemService = new ItemServiceImpl(userService, repository, mapper, commentsRepository, bookingRepository,
-                commentMapper, bookingMapper, itemRequestService);
+                commentMapper, bookingMapper, itemRequestService, ownerViewService);
         item = ObjectSupplier.getDefaultItem();
         itemCreateDto = ObjectSupplier.getDefaultItemCreateDto();
     }
 
     @Test
     void getAllByUserTest() {
-        when(userService.getById(anyLong())).thenReturn(null);
-        when(repository.findAllByOwner(anyLong(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(item)));
-        when(commentsRepository.findAllByItem_Id(anyLong()))
+        doNothing().when(userService).checkUserExists(anyLong());
+        when(repository.findAllWithOwnerView(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(getRow(item, null)));
+        when(commentsRepository.findAllByItemIds(anyCollection()))
+                .thenReturn(new ArrayList<>());
+        when(bookingRepository.findLastBookingsByItemIds(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(new ArrayList<>());
+        when(bookingRepository.findNextBookingsByItemIds(anyCollection(), any(LocalDateTime.class)))
                 .thenReturn(new ArrayList<>());
-        when(bookingRepository.findFirstByItemIdAndEndBeforeOrderByEndDesc(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(null);
-        when(bookingRepository.findFirstByItemIdAndStartAfterOrderByStart(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(null);
 
         List<ItemResponseForOwner> result = itemService.getAllByUserId(1, 0, 10);
 
@@ -89,9 +103,151 @@ public class ItemServiceTest {
         assertNull(result.get(0).getNextBooking());
     }
 
+    @Test
+    void getAllByUserWithBookingsAndCommentsTest() {
+        Item secondItem = ObjectSupplier.getDefaultItem();
+        secondItem.setId(2L);
+        Comment comment = ObjectSupplier.getDefaultComment();
+        Booking lastBooking = ObjectSupplier.getDefaultBooking();
+        lastBooking.setStart(LocalDateTime.now().minusDays(10));
+        lastBooking.setEnd(LocalDateTime.now().minusDays(9));
+        Booking nextBooking = ObjectSupplier.getDefaultBooking();
+        nextBooking.setId(2L);
+        nextBooking.setItem(secondItem);
+        nextBooking.setStart(LocalDateTime.now().plusDays(1));
+        nextBooking.setEnd(LocalDateTime.now().plusDays(2));
+        doNothing().when(userService).checkUserExists(anyLong());
+        when(repository.findAllWithOwnerView(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(getRow(item, null), getRow(secondItem, null)));
+        when(commentsRepository.findAllByItemIds(anyCollection()))
+                .thenReturn(List.of(comment));
+        when(bookingRepository.findLastBookingsByItemIds(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(lastBooking));
+        when(bookingRepository.findNextBookingsByItemIds(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(nextBooking));
+
+        List<ItemResponseForOwner> result = itemService.getAllByUserId(1, 0, 10);
+
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(0).getComments().size());
+        assertEquals(comment.getId(), result.get(0).getComments().get(0).getId());
+        assertEquals(lastBooking.getId(), result.get(0).getLastBooking().getId());
+        assertNull(result.get(0).getNextBooking());
+        assertTrue(result.get(1).getComments().isEmpty());
+        assertNull(result.get(1).getLastBooking());
+        assertEquals(nextBooking.getId(), result.get(1).getNextBooking().getId());
+        verify(commentsRepository, times(1)).findAllByItemIds(List.of(1L, 2L));
+        verify(commentsRepository, never()).findAllByItem_Id(anyLong());
+    }
+
+    @Test
+    void getAllByUserUsesStoredViewTest() {
+        ItemOwnerView view = ItemOwnerView.create(item.getId());
+        view.setComments(List.of(ObjectSupplier.getCommentResponseDto()));
+        view.setRefreshAt(LocalDateTime.now().plusDays(1));
+        when(repository.findAllWithOwnerView(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(getRow(item, view)));
+
+        List<ItemResponseForOwner> result = itemService.getAllByUserId(1, 0, 10);
+
+        assertEquals(1, result.size());
+        assertEquals(view.getComments(), result.get(0).getComments());
+        verify(commentsRepository, never()).findAllByItemIds(anyCollection());
+        verify(bookingRepository, never()).findLastBookingsByItemIds(anyCollection(), any(LocalDateTime.class));
+        verify(viewRepository, never()).saveAll(anyCollection());
+    }
+
+    @Test
+    void getAllByUserRefreshesExpiredViewInBackgroundTest() {
+        ItemOwnerView view = ItemOwnerView.create(item.getId());
+        LocalDateTime refreshAt = LocalDateTime.now().minusMinutes(1);
+        view.setRefreshAt(refreshAt);
+        Booking nextBooking = ObjectSupplier.getDefaultBooking();
+        nextBooking.setStart(LocalDateTime.now().plusDays(1));
+        nextBooking.setEnd(LocalDateTime.now().plusDays(2));
+        when(repository.findAllWithOwnerView(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(getRow(item, view)));
+        when(viewRepository.findAllByIdForUpdate(anyCollection()))
+                .thenReturn(List.of(view));
+        when(bookingRepository.findNextBookingsByItemIds(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(nextBooking));
+
+        List<ItemResponseForOwner> result = itemService.getAllByUserId(1, 0, 10);
+
+        assertEquals(nextBooking.getId(), result.get(0).getNextBooking().getId());
+        assertEquals(refreshAt, view.getRefreshAt());
+        verify(viewRepository, never()).findAllByIdForUpdate(anyCollection());
+        verify(viewRepository, never()).saveAll(anyCollection());
+
+        assertEquals(1, refreshTasks.size());
+        refreshTasks.get(0).run();
+
+        assertEquals(nextBooking.getStart(), view.getRefreshAt());
+        verify(viewRepository, times(1)).findAllByIdForUpdate(List.of(item.getId()));
+        verify(viewRepository, times(1)).saveAll(List.of(view));
+    }
+
+    @Test
+    void getAllByUserSchedulesRefreshOnceTest() {
+        ItemOwnerView view = ItemOwnerView.create(item.getId());
+        view.setRefreshAt(LocalDateTime.now().minusMinutes(1));
+        ItemOwnerView refreshed = ItemOwnerView.create(item.getId());
+        refreshed.setRefreshAt(LocalDateTime.now().plusDays(1));
+        when(repository.findAllWithOwnerView(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(getRow(item, view)));
+        when(viewRepository.findAllByIdForUpdate(anyCollection()))
+                .thenReturn(List.of(refreshed));
+
+        itemService.getAllByUserId(1, 0, 10);
+        itemService.getAllByUserId(1, 0, 10);
+        assertEquals(1, refreshTasks.size());
+
+        // запись успели пересчитать, пока задача ждала в очереди
+        refreshTasks.get(0).run();
+        itemService.getAllByUserId(1, 0, 10);
+
+        assertEquals(2, refreshTasks.size());
+        verify(viewRepository, never()).saveAll(anyCollection());
+    }
+
+    @Test
+    void getAllByUnknownUserTest() {
+        when(repository.findAllWithOwnerView(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of());
+        doThrow(new UserNotFoundException("Пользователь не найден")).when(userService).checkUserExists(100L);
+
+        assertThrows(UserNotFoundException.class, () -> itemService.getAllByUserId(100L, 0, 10));
+    }
+
+    @Test
+    void getByIdsShowsBookingsOnlyForOwnedItemsTest() {
+        Item foreignItem = ObjectSupplier.getDefaultItem();
+        foreignItem.setId(2L);
+        foreignItem.setOwner(2L);
+        Booking lastBooking = ObjectSupplier.getDefaultBooking();
+        doNothing().when(userService).checkUserExists(anyLong());
+        when(repository.findAllById(anyCollection()))
+                .thenReturn(List.of(foreignItem, item));
+        when(commentsRepository.findAllByItemIds(anyCollection()))
+                .thenReturn(new ArrayList<>());
+        when(bookingRepository.findLastBookingsByItemIds(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(lastBooking));
+        when(bookingRepository.findNextBookingsByItemIds(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(new ArrayList<>());
+
+        List<ItemResponseForOwner> result = itemService.getByIds(List.of(2L, 1L), 1);
+
+        assertEquals(2, result.size());
+        assertEquals(item.getId(), result.get(0).getId());
+        assertEquals(lastBooking.getId(), result.get(0).getLastBooking().getId());
+        assertNull(result.get(1).getLastBooking());
+        verify(commentsRepository, times(1)).findAllByItemIds(List.of(1L, 2L));
+        verify(bookingRepository, times(1)).findLastBookingsByItemIds(eq(List.of(1L)), any(LocalDateTime.class));
+    }
+
     @Test
     void getByIdTest() {
-        when(userService.getById(anyLong())).thenReturn(null);
+        doNothing().when(userService).checkUserExists(anyLong());
         when(repository.getById(anyLong()))
                 .thenReturn(item);
         when(commentsRepository.findAllByItem_Id(anyLong()))
@@ -99,9 +255,9 @@ public class ItemServiceTest {
         Booking booking = ObjectSupplier.getDefaultBooking();
         booking.setStart(LocalDateTime.now().minusDays(10));
         booking.setEnd(LocalDateTime.now().minusDays(9));
-        when(bookingRepository.findFirstByItemIdAndEndBeforeOrderByEndDesc(anyLong(), any(LocalDateTime.class)))
+        when(bookingRepository.findFirstByItemIdAndEndBeforeOrderByEndDescIdAsc(anyLong(), any(LocalDateTime.class)))
                 .thenReturn(booking);
-        when(bookingRepository.findFirstByItemIdAndStartAfterOrderByStart(anyLong(), any(LocalDateTime.class)))
+        when(bookingRepository.findFirstByItemIdAndStartAfterOrderByStartAscIdAsc(anyLong(), any(LocalDateTime.class)))
                 .thenReturn(null);
 
         ItemResponseForOwner result = itemService.getById(1, 1);
@@ -118,11 +274,10 @@ public class ItemServiceTest {
 
     @Test
     void getByQueryTest() {
-        when(userService.getById(anyLong())).thenReturn(null);
-        when(repository.findByDescriptionContainingIgnoreCaseOrNameContainingIgnoreCase(anyString(), anyString(),
-                any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(item)));
-        when(commentsRepository.findAllByItem_Id(anyLong()))
+        doNothing().when(userService).checkUserExists(anyLong());
+        when(repository.searchAvailable(anyString(), any(Pageable.class)))
+                .thenReturn(List.of(item));
+        when(commentsRepository.findAllByItemIds(anyCollection()))
                 .thenReturn(new ArrayList<>());
 
         String query = "item";
@@ -137,11 +292,21 @@ public class ItemServiceTest {
         assertEquals(result.get(0).getComments().size(), item.getComments().size());
     }
 
+    @Test
+    void getByBlankQueryTest() {
+        doNothing().when(userService).checkUserExists(anyLong());
+
+        List<ItemResponseDto> result = itemService.getByNameOrDescription(" ", 1, 0, 10);
+
+        assertTrue(result.isEmpty());
+        verify(repository, never()).searchAvailable(anyString(), any(Pageable.class));
+    }
+
     @Test
     void createItemTest() {
         ItemRequest request = ObjectSupplier.getDefaultItemRequest();
         item.setRequest(request);
-        when(userService.getById(anyLong())).thenReturn(null);
+        doNothing().when(userService).checkUserExists(anyLong());
         when(repository.save(any(Item.class)))
                 .thenReturn(item);
         doNothing().when(itemRequestService).save(any(ItemRequest.class));
@@ -156,10 +321,35 @@ public class ItemServiceTest {
         assertNull(result.getComments());
     }
 
+    @Test
+    void createItemsTest() {
+        ItemRequest request = ObjectSupplier.getDefaultItemRequest();
+        doNothing().when(userService).checkUserExists(anyLong());
+        when(itemRequestService.getRequestById(anyLong()))
+                .thenReturn(request);
+        when(repository.saveAll(anyCollection()))
+                .thenAnswer(invocation -> {
+                    List<Item> items = new ArrayList<>(invocation.getArgument(0));
+                    for (int i = 0; i < items.size(); i++) {
+                        items.get(i).setId(i + 1L);
+                    }
+                    return items;
+                });
+
+        List<ItemResponseDto> result = itemService.createItems(List.of(itemCreateDto, itemCreateDto), 1L);
+
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getId());
+        assertEquals(2L, result.get(1).getId());
+        assertEquals(request.getId(), result.get(1).getRequestId());
+        verify(itemRequestService, times(1)).getRequestById(request.getId());
+        verify(viewRepository).saveAll(anyCollection());
+    }
+
     @Test
     void updateItemTest() {
         ItemUpdateDto updateDto = ObjectSupplier.getDefaultItemUpdateDto();
-        when(userService.getById(anyLong())).thenReturn(null);
+        doNothing().when(userService).checkUserExists(anyLong());
         when(repository.getById(anyLong()))
                 .thenReturn(item);
         item.setName(updateDto.getName());
@@ -182,9 +372,17 @@ public class ItemServiceTest {
         assertEquals(result.getAvailable(), item.getAvailable());
     }
 
+    @Test
+    void lockItemNotFoundTest() {
+        when(repository.findByIdForUpdate(anyLong()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(ItemNotFoundException.class, () -> itemService.lockItem(100L));
+    }
+
     @Test
     void deleteItemTest() {
-        when(userService.getById(anyLong())).thenReturn(null);
+        doNothing().when(userService).checkUserExists(anyLong());
         when(repository.getById(anyLong()))
                 .thenReturn(item);
         doNothing().when(repository).deleteById(anyLong());
@@ -216,4 +414,18 @@ public class ItemServiceTest {
         assertEquals(result.getText(), comment.getText());
         assertEquals(result.getAuthorName(), user.getName());
     }
+
+    private static ItemOwnerRow getRow(Item item, ItemOwnerView view) {
+        return new ItemOwnerRow() {
+            @Override
+            public Item getItem() {
+                return item;
+            }
+
+            @Override
+            public ItemOwnerView getView() {
+                return view;
+            }
+        };
+    }
 }
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QueryMetricsFilterTest {
+
+    static final String SELECT_USER = "select * from users where id=?";
+    static final String SELECT_ITEM = "select * from items where id=?";
+    static final String NEXT_ITEM_ID = "select nextval ('items_seq')";
+
+    SimpleMeterRegistry meterRegistry;
+    QueryMetricsFilter filter;
+    StatementCountingInspector inspector;
+    MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new QueryMetricsFilter(meterRegistry, 3, false);
+        inspector = new StatementCountingInspector();
+        request = new MockHttpServletRequest("GET", "/items/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/items/{itemId}");
+    }
+
+    @Test
+    void recordsQueriesPerRequestTest() throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), executing(SELECT_USER, SELECT_ITEM));
+
+        DistributionSummary summary = meterRegistry.get(QueryMetricsFilter.QUERIES_METRIC)
+                .tags("method", "GET", "uri", "/items/{itemId}")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+        assertNull(meterRegistry.find(QueryMetricsFilter.N_PLUS_ONE_METRIC).counter());
+    }
+
+    @Test
+    void flagsRepeatedStatementAsNPlusOneTest() throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(),
+                executing(SELECT_ITEM, SELECT_USER, SELECT_USER, SELECT_USER));
+
+        assertEquals(1, meterRegistry.get(QueryMetricsFilter.N_PLUS_ONE_METRIC)
+                .tags("method", "GET", "uri", "/items/{itemId}")
+                .counter()
+                .count());
+    }
+
+    @Test
+    void doesNotFlagSequenceCallsTest() throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(),
+                executing(NEXT_ITEM_ID, NEXT_ITEM_ID, NEXT_ITEM_ID, NEXT_ITEM_ID));
+
+        assertEquals(4, meterRegistry.get(QueryMetricsFilter.QUERIES_METRIC).summary().totalAmount());
+        assertNull(meterRegistry.find(QueryMetricsFilter.N_PLUS_ONE_METRIC).counter());
+    }
+
+    @Test
+    void ignoresStatementsOutsideRequestTest() throws Exception {
+        inspector.inspect(SELECT_USER);
+        filter.doFilter(request, new MockHttpServletResponse(), executing());
+
+        assertEquals(0, meterRegistry.get(QueryMetricsFilter.QUERIES_METRIC).summary().totalAmount());
+    }
+
+    @Test
+    void returnsQueryCountHeaderInDiagnosticsModeTest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, resp) -> {
+            inspector.inspect(SELECT_USER);
+            inspector.inspect(SELECT_ITEM);
+            resp.getWriter().write("[]");
+            resp.flushBuffer();
+        };
+
+        new QueryMetricsFilter(meterRegistry, 3, true).doFilter(request, response, chain);
+
+        assertEquals("2", response.getHeader(QueryMetricsFilter.QUERY_COUNT_HEADER));
+        assertEquals("[]", response.getContentAsString());
+    }
+
+    @Test
+    void doesNotBufferStreamedBodyInDiagnosticsModeTest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, resp) -> {
+            inspector.inspect(SELECT_USER);
+            resp.getOutputStream().write('[');
+            resp.flushBuffer();
+            // начало тела уже в ответе, до окончания обработки
+            assertTrue(response.isCommitted());
+            assertEquals("[", response.getContentAsString());
+            inspector.inspect(SELECT_ITEM);
+            inspector.inspect(SELECT_ITEM);
+            resp.getOutputStream().write(']');
+        };
+
+        new QueryMetricsFilter(meterRegistry, 3, true).doFilter(request, response, chain);
+
+        assertEquals("1", response.getHeader(QueryMetricsFilter.QUERY_COUNT_HEADER));
+        assertEquals("[]", response.getContentAsString());
+        assertEquals(3, meterRegistry.get(QueryMetricsFilter.QUERIES_METRIC).summary().totalAmount());
+    }
+
+    @Test
+    void returnsQueryCountHeaderForEmptyBodyTest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new QueryMetricsFilter(meterRegistry, 3, true).doFilter(request, response, executing(SELECT_USER));
+
+        assertEquals("1", response.getHeader(QueryMetricsFilter.QUERY_COUNT_HEADER));
+    }
+
+    @Test
+    void omitsQueryCountHeaderByDefaultTest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, executing(SELECT_USER));
+
+        assertNull(response.getHeader(QueryMetricsFilter.QUERY_COUNT_HEADER));
+    }
+
+    private FilterChain executing(String... statements) {
+        return (req, resp) -> {
+            for (String sql : statements) {
+                inspector.inspect(sql);
+            }
+        };
+    }
+}
@@ -17,10 +17,14 @@ import ru.practicum.shareit.supplier.ObjectSupplier;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -74,8 +78,11 @@ public class ItemRequestControllerTest {
 
     @Test
     void getRequestsByUser() throws Exception {
-        when(itemRequestService.getByUser(any(Long.class)))
-                .thenReturn(List.of(responseDto));
+        doAnswer(invocation -> {
+            Consumer<ItemRequestResponseDto> consumer = invocation.getArgument(1);
+            consumer.accept(responseDto);
+            return null;
+        }).when(itemRequestService).getByUser(any(Long.class), any());
 
         mvc.perform(get(SOURCE_PATH)
                         .header(USER_HEADER, 1)
@@ -89,6 +96,37 @@ public class ItemRequestControllerTest {
                 .andExpect(jsonPath("$[0].created", is(responseDto.getCreated().toString())));
     }
 
+    @Test
+    void getRequestsByUserFailsBeforeFirstChunkTest() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ItemRequestResponseDto> consumer = invocation.getArgument(1);
+            consumer.accept(responseDto);
+            throw new ItemRequestNotFound("Запрос не найден");
+        }).when(itemRequestService).getByUser(any(Long.class), any());
+
+        mvc.perform(get(SOURCE_PATH)
+                        .header(USER_HEADER, 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("Запрос не найден")));
+    }
+
+    @Test
+    void getRequestsByUserPageTest() throws Exception {
+        when(itemRequestService.getByUser(any(Long.class), any(Integer.class), any(Integer.class)))
+                .thenReturn(List.of(responseDto));
+
+        mvc.perform(get(SOURCE_PATH + "?" + PAGINATION_PARAMS)
+                        .header(USER_HEADER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(responseDto.getId()), Long.class));
+        verify(itemRequestService).getByUser(1L, 0, 10);
+    }
+
     @Test
     void getAllRequestsTest() throws Exception {
         when(itemRequestService.getAll(any(Long.class), any(Integer.class), any(Integer.class)))
@@ -124,8 +162,8 @@ public class ItemRequestControllerTest {
 
     @Test
     void getItemRequestNotFoundTest() throws Exception {
-        when(itemRequestService.getByUser(any(Long.class)))
-                .thenThrow(ItemRequestNotFound.class);
+        doThrow(ItemRequestNotFound.class)
+                .when(itemRequestService).getByUser(any(Long.class), any());
 
         mvc.perform(get(SOURCE_PATH)
                         .header(USER_HEADER, 1)
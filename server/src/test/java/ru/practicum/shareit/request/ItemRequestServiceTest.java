@@ -18,9 +18,12 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
 import ru.practicum.shareit.supplier.ObjectSupplier;
+import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,8 +31,8 @@ import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
 
 public class ItemRequestServiceTest {
 
@@ -44,6 +47,8 @@ public class ItemRequestServiceTest {
 
     ItemRepository itemRepository;
 
+    EntityManager entityManager;
+
     @BeforeEach
     void setUp() {
         userService = mock(UserService.class);
@@ -51,7 +56,9 @@ public class ItemRequestServiceTest {
         repository = mock(ItemRequestRepository.class);
         itemMapper = new ItemMapperImpl();
         itemRepository = mock(ItemRepository.class);
-        itemRequestService = new ItemRequestServiceImpl(mapper, repository, itemMapper, userService, itemRepository);
+        entityManager = mock(EntityManager.class);
+        itemRequestService = new ItemRequestServiceImpl(mapper, repository, itemMapper, userService, itemRepository,
+                entityManager);
         user = ObjectSupplier.getDefaultUser();
         itemRequestCreatorDto = ObjectSupplier.getDefaultItemRequestCreateDto();
         itemRequest = ObjectSupplier.getDefaultItemRequest();
@@ -73,17 +80,50 @@ public class ItemRequestServiceTest {
 
     @Test
     void getRequestsByUserTest() {
-        when(userService.getUser(any(Long.class)))
-                .thenReturn(user);
-        when(repository.findAllByCreator(any(User.class)))
-                .thenReturn(List.of(itemRequest));
-        List<ItemRequestResponseDto> result = itemRequestService.getByUser(user.getId());
+        when(repository.findAllByCreatorId(any(Long.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(itemRequest)));
+        List<ItemRequestResponseDto> result = itemRequestService.getByUser(user.getId(), 0, 10);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(result.get(0).getCreated(), itemRequest.getCreated());
         assertEquals(result.get(0).getId(), itemRequest.getId());
         assertEquals(result.get(0).getDescription(), itemRequest.getDescription());
+        verify(userService, times(1)).checkUserExists(user.getId());
+    }
+
+    @Test
+    void streamRequestsByUserTest() {
+        List<ItemRequest> requests = new ArrayList<>();
+        for (long i = 1; i <= ItemRequestRepository.STREAM_FETCH_SIZE + 1; i++) {
+            ItemRequest request = ObjectSupplier.getDefaultItemRequest();
+            request.setId(i);
+            requests.add(request);
+        }
+        Item item = ObjectSupplier.getDefaultItem();
+        item.setRequest(requests.get(ItemRequestRepository.STREAM_FETCH_SIZE));
+        when(repository.streamAllByCreatorId(any(Long.class)))
+                .thenReturn(requests.stream());
+        when(itemRepository.findAllByRequestIds(anyCollection()))
+                .thenReturn(List.of(), List.of(item));
+        List<ItemRequestResponseDto> result = new ArrayList<>();
+
+        itemRequestService.getByUser(user.getId(), result::add);
+
+        assertEquals(requests.size(), result.size());
+        assertEquals(item.getId(), result.get(ItemRequestRepository.STREAM_FETCH_SIZE).getItems().get(0).getId());
+        verify(itemRepository, times(2)).findAllByRequestIds(anyCollection());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void streamRequestsByWrongUserTest() {
+        doThrow(new UserNotFoundException(String.format("Пользователь с id = %d не найден", 12)))
+                .when(userService).checkUserExists(12L);
+
+        assertThatThrownBy(() -> itemRequestService.getByUser(12L, dto -> { }))
+                .isInstanceOf(UserNotFoundException.class);
+        verify(repository, never()).streamAllByCreatorId(any(Long.class));
     }
 
     @Test
@@ -102,6 +142,29 @@ public class ItemRequestServiceTest {
         assertEquals(result.get(0).getDescription(), itemRequest.getDescription());
     }
 
+    @Test
+    void getAllRequestsWithItemsTest() {
+        user.setId(2L);
+        Item item = ObjectSupplier.getDefaultItem();
+        item.setRequest(itemRequest);
+        ItemRequest withoutItems = ObjectSupplier.getDefaultItemRequest();
+        withoutItems.setId(itemRequest.getId() + 1);
+        when(userService.getUser(any(Long.class)))
+                .thenReturn(user);
+        when(repository.findAllByCreatorNot(any(User.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(itemRequest, withoutItems)));
+        when(itemRepository.findAllByRequestIds(anyCollection()))
+                .thenReturn(List.of(item));
+        List<ItemRequestResponseDto> result = itemRequestService.getAll(2, 0,10);
+
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(0).getItems().size());
+        assertEquals(item.getId(), result.get(0).getItems().get(0).getId());
+        assertEquals(0, result.get(1).getItems().size());
+        verify(itemRepository, times(1)).findAllByRequestIds(List.of(itemRequest.getId(), withoutItems.getId()));
+        verify(itemRepository, never()).findAllByRequest(any(ItemRequest.class));
+    }
+
     @Test
     void getRequestByIdTest() {
         Item item = ObjectSupplier.getDefaultItem();
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.supplier.ObjectSupplier;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ItemRequestStreamTest {
+
+    // больше буфера первой порции ответа
+    private static final int REQUESTS_BEFORE_FAILURE = 5_000;
+
+    @MockBean
+    ItemRequestService itemRequestService;
+
+    @LocalServerPort
+    int port;
+
+    @Test
+    void failureAfterFirstChunkBreaksResponseTest() {
+        doAnswer(invocation -> {
+            Consumer<ItemRequestResponseDto> consumer = invocation.getArgument(1);
+            ItemRequestResponseDto dto = ObjectSupplier.getItemRequestResponseDto();
+            for (int i = 0; i < REQUESTS_BEFORE_FAILURE; i++) {
+                consumer.accept(dto);
+            }
+            throw new IllegalStateException("Соединение с базой потеряно");
+        }).when(itemRequestService).getByUser(any(Long.class), any());
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/requests"))
+                .header("X-Sharer-User-Id", "1")
+                .build();
+
+        assertThatThrownBy(() -> HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString()))
+                .isInstanceOf(IOException.class);
+    }
+}
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.supplier;
 
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.jdbc.JdbcTestUtils;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.BookStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
@@ -72,6 +75,13 @@ public class ObjectSupplier {
         return booking;
     }
 
+    public static BookingView getBookingView(Booking booking) {
+        return new BookingView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booking.getBooker().getId(), booking.getBooker().getName(), booking.getBooker().getEmail(),
+                booking.getItem().getId(), booking.getItem().getName(), booking.getItem().getDescription(),
+                booking.getItem().getAvailable());
+    }
+
     public static ItemRequest getDefaultItemRequest() {
         User user = getDefaultUser();
         user.setId(2L);
@@ -222,4 +232,47 @@ public class ObjectSupplier {
         return commentCreateDto;
     }
 
+    public static User getUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@mail.ru");
+        return user;
+    }
+
+    public static Item getItem(User owner, String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription("Простая дрель");
+        item.setAvailable(true);
+        item.setOwner(owner.getId());
+        return item;
+    }
+
+    public static Booking getBooking(Item item, User booker, LocalDateTime start, LocalDateTime end,
+                                     BookStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        return booking;
+    }
+
+    public static Comment getComment(Item item, User author, LocalDateTime created) {
+        Comment comment = new Comment();
+        comment.setText("Отличная дрель");
+        comment.setItem(item);
+        comment.setAuthor(author);
+        comment.setCreated(created);
+        return comment;
+    }
+
+    /**
+     * Очищает таблицы после тестов с контекстом Spring, в порядке внешних ключей.
+     */
+    public static void deleteAll(JdbcTemplate jdbcTemplate) {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "item_owner_view", "comments", "booking", "items", "requests",
+                "users");
+    }
 }
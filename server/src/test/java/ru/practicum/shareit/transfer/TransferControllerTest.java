@@ -0,0 +1,180 @@
+package ru.practicum.shareit.transfer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.transfer.dto.TransferJobDto;
+import ru.practicum.shareit.transfer.exceptions.IncorrectTransferException;
+import ru.practicum.shareit.transfer.exceptions.TransferJobNotFoundException;
+import ru.practicum.shareit.transfer.exceptions.TransferTooLargeException;
+import ru.practicum.shareit.transfer.model.TransferDirection;
+import ru.practicum.shareit.transfer.model.TransferFormat;
+import ru.practicum.shareit.transfer.model.TransferJob;
+import ru.practicum.shareit.transfer.model.TransferStatus;
+import ru.practicum.shareit.transfer.model.TransferTable;
+import ru.practicum.shareit.transfer.service.TransferService;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.transfer.config.TransferAdminInterceptor.ADMIN_TOKEN_HEADER;
+
+@WebMvcTest(value = TransferController.class,
+        properties = "shareit.transfer.admin-token=" + TransferControllerTest.TOKEN)
+@AutoConfigureMockMvc
+public class TransferControllerTest {
+    private static final String SOURCE_PATH = "/admin/transfers";
+    private static final String ID_PATH = "/{jobId}";
+    private static final String JOB_ID = "job";
+    static final String TOKEN = "secret";
+
+    @MockBean
+    private TransferService service;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @TempDir
+    Path directory;
+
+    private TransferJobDto jobDto;
+
+    @BeforeEach
+    void setUp() {
+        jobDto = TransferJobDto.builder()
+                .id(JOB_ID)
+                .direction(TransferDirection.EXPORT)
+                .table("items")
+                .format(TransferFormat.CSV)
+                .status(TransferStatus.PENDING)
+                .rows(0)
+                .bytes(0)
+                .created(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void startExportTest() throws Exception {
+        when(service.startExport("items", "csv"))
+                .thenReturn(jobDto);
+
+        mvc.perform(post(SOURCE_PATH + "/export?table=items")
+                        .header(ADMIN_TOKEN_HEADER, TOKEN))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id", is(JOB_ID)))
+                .andExpect(jsonPath("$.status", is("PENDING")));
+    }
+
+    @Test
+    void startImportTest() throws Exception {
+        when(service.startImport(anyString(), anyString(), any(InputStream.class), anyLong()))
+                .thenReturn(jobDto);
+
+        mvc.perform(post(SOURCE_PATH + "/import?table=items&format=ndjson")
+                        .header(ADMIN_TOKEN_HEADER, TOKEN)
+                        .content("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id", is(JOB_ID)));
+        verify(service, times(1)).startImport(eq("items"), eq("ndjson"), any(InputStream.class), anyLong());
+    }
+
+    @Test
+    void wrongTableTest() throws Exception {
+        when(service.startExport("secrets", "csv"))
+                .thenThrow(new IncorrectTransferException("Таблица secrets не поддерживается"));
+
+        mvc.perform(post(SOURCE_PATH + "/export?table=secrets")
+                        .header(ADMIN_TOKEN_HEADER, TOKEN))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Таблица secrets не поддерживается")));
+    }
+
+    @Test
+    void findAllTest() throws Exception {
+        when(service.getJobs())
+                .thenReturn(List.of(jobDto));
+
+        mvc.perform(get(SOURCE_PATH)
+                        .header(ADMIN_TOKEN_HEADER, TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void getWrongJobTest() throws Exception {
+        when(service.getJobById(anyString()))
+                .thenThrow(new TransferJobNotFoundException("Задача выгрузки или загрузки wrong не найдена"));
+
+        mvc.perform(get(SOURCE_PATH + ID_PATH, "wrong")
+                        .header(ADMIN_TOKEN_HEADER, TOKEN))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getFileTest() throws Exception {
+        Path file = Files.writeString(directory.resolve("items-job.csv"), "ID,NAME\n1,Дрель\n");
+        TransferJob job = TransferJob.forExport(JOB_ID, TransferTable.ITEMS, TransferFormat.CSV, file);
+        when(service.getExportedJob(JOB_ID))
+                .thenReturn(job);
+
+        mvc.perform(get(SOURCE_PATH + ID_PATH + "/file", JOB_ID)
+                        .header(ADMIN_TOKEN_HEADER, TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, containsString("text/csv")))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("items-job.csv")))
+                .andExpect(content().bytes(Files.readAllBytes(file)));
+    }
+
+    @Test
+    void deleteJobTest() throws Exception {
+        mvc.perform(delete(SOURCE_PATH + ID_PATH, JOB_ID)
+                        .header(ADMIN_TOKEN_HEADER, TOKEN))
+                .andExpect(status().isOk());
+        verify(service, times(1)).deleteJob(JOB_ID);
+    }
+
+    @Test
+    void missingTokenTest() throws Exception {
+        mvc.perform(get(SOURCE_PATH))
+                .andExpect(status().isForbidden());
+        mvc.perform(post(SOURCE_PATH + "/import?table=users")
+                        .header(ADMIN_TOKEN_HEADER, "wrong")
+                        .content("ID,NAME,EMAIL\n".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void tooLargeImportTest() throws Exception {
+        when(service.startImport(anyString(), anyString(), any(InputStream.class), anyLong()))
+                .thenThrow(new TransferTooLargeException("Файл загрузки больше 1 байт"));
+
+        mvc.perform(post(SOURCE_PATH + "/import?table=users")
+                        .header(ADMIN_TOKEN_HEADER, TOKEN)
+                        .content("ID,NAME,EMAIL\n".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isPayloadTooLarge());
+        verify(service, times(1)).startImport(eq("users"), eq("csv"), any(InputStream.class), eq(14L));
+    }
+}
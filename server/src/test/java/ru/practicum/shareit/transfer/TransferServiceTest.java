@@ -0,0 +1,287 @@
+package ru.practicum.shareit.transfer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.supplier.ObjectSupplier;
+import ru.practicum.shareit.transfer.config.TransferConfig;
+import ru.practicum.shareit.transfer.config.TransferProperties;
+import ru.practicum.shareit.transfer.dto.TransferJobDto;
+import ru.practicum.shareit.transfer.exceptions.IncorrectTransferException;
+import ru.practicum.shareit.transfer.exceptions.TransferJobNotFoundException;
+import ru.practicum.shareit.transfer.exceptions.TransferTooLargeException;
+import ru.practicum.shareit.transfer.model.TransferFormat;
+import ru.practicum.shareit.transfer.model.TransferJob;
+import ru.practicum.shareit.transfer.model.TransferStatus;
+import ru.practicum.shareit.transfer.model.TransferTable;
+import ru.practicum.shareit.transfer.service.TransferService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+public class TransferServiceTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+    private static final int MAX_IMPORT_SIZE = 64 * 1024;
+
+    @TempDir
+    static Path directory;
+
+    @Autowired
+    TransferService service;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    User owner;
+
+    @DynamicPropertySource
+    static void transferProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit.transfer.directory", () -> directory.toString());
+        registry.add("shareit.transfer.max-import-size", () -> MAX_IMPORT_SIZE + "B");
+    }
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(ObjectSupplier.getUser("owner"));
+        userRepository.save(ObjectSupplier.getUser("Иван \"Дрель\", мастер"));
+        for (int i = 0; i < 3; i++) {
+            Item item = ObjectSupplier.getItem(owner, "Дрель " + i);
+            if (i > 0) {
+                item.setDescription("Дрель; в хорошем состоянии\nс кейсом");
+            }
+            item.setAvailable(i != 1);
+            itemRepository.save(item);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        ObjectSupplier.deleteAll(jdbcTemplate);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"csv", "ndjson"})
+    void exportAndImportTest(String format) throws Exception {
+        List<Map<String, Object>> users = jdbcTemplate.queryForList("SELECT * FROM users ORDER BY id");
+        List<Map<String, Object>> items = jdbcTemplate.queryForList("SELECT * FROM items ORDER BY id");
+        TransferJobDto usersExport = await(service.startExport("users", format));
+        TransferJobDto itemsExport = await(service.startExport("items", format));
+
+        assertThat(usersExport.getStatus()).isEqualTo(TransferStatus.DONE);
+        assertThat(usersExport.getRows()).isEqualTo(users.size());
+        assertThat(itemsExport.getRows()).isEqualTo(items.size());
+        assertThat(itemsExport.getBytes()).isPositive();
+        assertThat(itemsExport.getProgress()).isEqualTo(1.0);
+
+        ObjectSupplier.deleteAll(jdbcTemplate);
+        TransferJobDto usersImport;
+        try (InputStream in = Files.newInputStream(service.getExportedJob(usersExport.getId()).getFile())) {
+            usersImport = await(service.startImport("users", format, in, -1));
+        }
+        TransferJobDto itemsImport;
+        try (InputStream in = Files.newInputStream(service.getExportedJob(itemsExport.getId()).getFile())) {
+            itemsImport = await(service.startImport("items", format, in, -1));
+        }
+
+        assertThat(usersImport.getStatus()).isEqualTo(TransferStatus.DONE);
+        assertThat(itemsImport.getStatus()).isEqualTo(TransferStatus.DONE);
+        assertThat(itemsImport.getRows()).isEqualTo(items.size());
+        assertThat(itemsImport.getBytes()).isEqualTo(itemsImport.getTotalBytes());
+        assertThat(jdbcTemplate.queryForList("SELECT * FROM users ORDER BY id")).isEqualTo(users);
+        assertThat(jdbcTemplate.queryForList("SELECT * FROM items ORDER BY id")).isEqualTo(items);
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "item_owner_view")).isEqualTo(items.size());
+    }
+
+    @Test
+    void importRestartsIdsTest() {
+        String csv = "ID,NAME,EMAIL\n1000,Петр,petr@mail.ru\n1001,Анна,anna@mail.ru\n";
+
+        TransferJobDto job = await(service.startImport("users", "csv",
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), -1));
+        User user = userRepository.save(ObjectSupplier.getUser("new"));
+
+        assertThat(job.getRows()).isEqualTo(2);
+        assertThat(user.getId()).isEqualTo(1002);
+    }
+
+    @Test
+    void importNeverMovesIdsBackTest() {
+        long before = getItemsSequenceBase();
+
+        // округленный вверх до шага 1000 id не выходит за текущее значение последовательности
+        long lowId = before / 1000 * 1000 - 1;
+        TransferJobDto lowImport = await(service.startImport("items", "ndjson", getItemJson(lowId), -1));
+
+        assertThat(lowImport.getStatus()).isEqualTo(TransferStatus.DONE);
+        assertThat(getItemsSequenceBase()).isEqualTo(before);
+
+        long highId = before + 1500;
+        TransferJobDto highImport = await(service.startImport("items", "ndjson", getItemJson(highId), -1));
+
+        assertThat(highImport.getStatus()).isEqualTo(TransferStatus.DONE);
+        assertThat(getItemsSequenceBase()).isEqualTo((highId + 1000) / 1000 * 1000);
+    }
+
+    @Test
+    void failedImportIsRolledBackTest() {
+        String ndjson = "{\"id\":1000,\"name\":\"Петр\",\"email\":\"petr@mail.ru\"}\n" +
+                "{\"id\":1001,\"name\":\"Анна\",\"email\":\"petr@mail.ru\"}\n";
+
+        TransferJobDto job = await(service.startImport("users", "ndjson",
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), -1));
+
+        assertThat(job.getStatus()).isEqualTo(TransferStatus.FAILED);
+        assertThat(job.getError()).isNotBlank();
+        assertThat(userRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void emptyImportTest() throws Exception {
+        long files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.count();
+        }
+
+        assertThatThrownBy(() -> service.startImport("users", "csv", new ByteArrayInputStream(new byte[0]), -1))
+                .isInstanceOf(IncorrectTransferException.class);
+        try (Stream<Path> list = Files.list(directory)) {
+            assertThat(list.count()).isEqualTo(files);
+        }
+    }
+
+    @Test
+    void tooLargeImportTest() throws Exception {
+        long files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.count();
+        }
+        byte[] body = new byte[MAX_IMPORT_SIZE + 1];
+
+        assertThatThrownBy(() -> service.startImport("users", "csv", new ByteArrayInputStream(body), body.length))
+                .isInstanceOf(TransferTooLargeException.class);
+        assertThatThrownBy(() -> service.startImport("users", "csv", new ByteArrayInputStream(body), -1))
+                .isInstanceOf(TransferTooLargeException.class);
+        try (Stream<Path> list = Files.list(directory)) {
+            assertThat(list.count()).isEqualTo(files);
+        }
+    }
+
+    @Test
+    void deleteJobTest() {
+        TransferJobDto job = await(service.startExport("items", "csv"));
+        Path file = service.getExportedJob(job.getId()).getFile();
+
+        service.deleteJob(job.getId());
+
+        assertThat(file).doesNotExist();
+        assertThatThrownBy(() -> service.getJobById(job.getId()))
+                .isInstanceOf(TransferJobNotFoundException.class);
+    }
+
+    @Test
+    void finishedJobsExpireTest() throws Exception {
+        TransferProperties properties = new TransferProperties();
+        properties.setJobRetention(Duration.ofMillis(50));
+        Cache<String, TransferJob> jobs = new TransferConfig().transferJobs(properties);
+        TransferJob running = TransferJob.forExport("running", TransferTable.ITEMS, TransferFormat.CSV,
+                Files.createFile(directory.resolve("running.csv")));
+        TransferJob finished = TransferJob.forExport("finished", TransferTable.ITEMS, TransferFormat.CSV,
+                Files.createFile(directory.resolve("finished.csv")));
+        running.start();
+        finished.start();
+        jobs.put(running.getId(), running);
+        jobs.put(finished.getId(), finished);
+        finished.finish(0);
+        jobs.put(finished.getId(), finished);
+
+        Thread.sleep(200);
+        jobs.cleanUp();
+
+        assertThat(jobs.getIfPresent(running.getId())).isSameAs(running);
+        assertThat(jobs.getIfPresent(finished.getId())).isNull();
+        // слушатель удаления вызывается асинхронно
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (Files.exists(finished.getFile())) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+        assertThat(running.getFile()).exists();
+    }
+
+    @Test
+    void wrongTableTest() {
+        assertThatThrownBy(() -> service.startExport("item_owner_view", "csv"))
+                .isInstanceOf(IncorrectTransferException.class)
+                .hasMessage("Таблица item_owner_view не поддерживается");
+    }
+
+    @Test
+    void wrongFormatTest() {
+        assertThatThrownBy(() -> service.startExport("items", "xml"))
+                .isInstanceOf(IncorrectTransferException.class);
+    }
+
+    private long getItemsSequenceBase() {
+        Long base = jdbcTemplate.queryForObject("SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES " +
+                "WHERE SEQUENCE_NAME = 'ITEMS_SEQ'", Long.class);
+        return base == null ? 0 : base;
+    }
+
+    private InputStream getItemJson(long id) {
+        String ndjson = String.format("{\"id\":%d,\"owner\":%d,\"name\":\"Пила\",\"description\":\"Ручная пила\"," +
+                "\"available\":true,\"request_id\":null}\n", id, owner.getId());
+        return new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private TransferJobDto await(TransferJobDto job) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        TransferJobDto current = job;
+        while (current.getStatus() == TransferStatus.PENDING || current.getStatus() == TransferStatus.RUNNING) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            current = service.getJobById(job.getId());
+        }
+        return current;
+    }
+
+    private static User getUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.hashCode() + "@mail.ru");
+        return user;
+    }
+}
@@ -86,6 +86,17 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$[0].email", is(userDto.getEmail())));
     }
 
+    @Test
+    void getUsersByIds() throws Exception {
+        when(userService.getByIds(List.of(1L, 2L)))
+                .thenReturn(List.of(userDto));
+
+        mvc.perform(get(SOURCE_PATH + "?ids=1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(userDto.getId()), Long.class));
+    }
+
     @Test
     void updateUser() throws Exception {
         when(userService.updateUser(any(UserUpdateDto.class), any(Long.class)))
@@ -1,9 +1,14 @@
 package ru.practicum.shareit.user;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.service.ItemOwnerViewService;
 import ru.practicum.shareit.supplier.ObjectSupplier;
 import ru.practicum.shareit.user.dto.UserCreatorDto;
 import ru.practicum.shareit.user.dto.UserResponseDto;
@@ -21,6 +26,7 @@ import java.util.Optional;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -29,6 +35,7 @@ public class UserServiceTest {
     UserService userService;
     UserRepository userRepository;
     UserMapperImpl mapper;
+    Cache<Long, Boolean> existingUsers;
 
     User user;
     UserCreatorDto userCreatorDto;
@@ -39,7 +46,8 @@ public class UserServiceTest {
     void setUp() {
         userRepository = mock(UserRepository.class);
         mapper = new UserMapperImpl();
-        userService = new UserService(userRepository, mapper);
+        existingUsers = Caffeine.newBuilder().build();
+        userService = new UserService(userRepository, mapper, existingUsers, mock(ItemOwnerViewService.class));
         user = ObjectSupplier.getDefaultUser();
         userCreatorDto = ObjectSupplier.getDefaultUserCreator();
         userUpdateDto = ObjectSupplier.getDefaultUserUpdate();
@@ -68,6 +76,20 @@ public class UserServiceTest {
         assertEquals(user.getId(), result.getId());
     }
 
+    @Test
+    void getByIdsTest() {
+        User second = ObjectSupplier.getDefaultUser();
+        second.setId(2L);
+        when(userRepository.findAllById(any()))
+                .thenReturn(List.of(second, user));
+
+        List<UserResponseDto> result = userService.getByIds(List.of(2L, 1L, 3L));
+
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(0).getId());
+        assertEquals(2, result.get(1).getId());
+    }
+
     @Test
     void getByWrongIdTest() {
         when(userRepository.findById(any(Long.class)))
@@ -111,6 +133,58 @@ public class UserServiceTest {
         verify(userRepository, times(1)).deleteById(any(Long.class));
     }
 
+    @Test
+    void checkUserExistsCachedTest() {
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
+
+        userService.checkUserExists(user.getId());
+        userService.checkUserExists(user.getId());
+
+        verify(userRepository, times(1)).existsById(user.getId());
+    }
+
+    @Test
+    void checkUserNotExistsTest() {
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(false);
+
+        assertThatThrownBy(() -> userService.checkUserExists(12))
+                .isInstanceOf(UserNotFoundException.class)
+                .message().isEqualTo(String.format("Пользователь с id = %d не найден",12));
+        assertNull(existingUsers.getIfPresent(12L));
+    }
+
+    @Test
+    void deleteUserInvalidatesCacheTest() {
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true, false);
+
+        userService.checkUserExists(user.getId());
+        userService.deleteUser(user.getId());
+
+        assertThatThrownBy(() -> userService.checkUserExists(user.getId()))
+                .isInstanceOf(UserNotFoundException.class);
+    }
+
+    @Test
+    void deleteUserInvalidatesCacheAfterCommitTest() {
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
+        userService.checkUserExists(user.getId());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.deleteUser(user.getId());
+            assertNotNull(existingUsers.getIfPresent(user.getId()));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertNull(existingUsers.getIfPresent(user.getId()));
+    }
+
     @Test
     void updateWrongEmailUserTest() {
         when(userRepository.getById(any(Long.class)))